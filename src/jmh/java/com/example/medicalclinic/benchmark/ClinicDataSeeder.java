@@ -0,0 +1,56 @@
+package com.example.medicalclinic.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Seeds doctors, patients and {@code visits} consecutive 15-minute visits through JDBC batches,
+ * {@value #VISITS_PER_DOCTOR} per doctor. Odd visit ids are booked, even ones are free.
+ */
+final class ClinicDataSeeder {
+    static final int VISITS_PER_DOCTOR = 1000;
+    static final int PATIENTS = 1000;
+    private static final int BATCH_SIZE = 10_000;
+
+    private ClinicDataSeeder() {
+    }
+
+    static int seed(JdbcTemplate jdbcTemplate, int visits, LocalDateTime firstSlot) {
+        int doctors = Math.max(1, visits / VISITS_PER_DOCTOR);
+        jdbcTemplate.batchUpdate("INSERT INTO DOCTOR (id, email, password) VALUES (?, ?, ?)",
+                IntStream.rangeClosed(1, doctors)
+                        .mapToObj(i -> new Object[]{i, "doctor" + i + "@clinic.com", "password"})
+                        .toList());
+        jdbcTemplate.batchUpdate("INSERT INTO PATIENT (id, email, password, idCardNo, firstName, lastName) VALUES (?, ?, ?, ?, ?, ?)",
+                IntStream.rangeClosed(1, PATIENTS)
+                        .mapToObj(i -> new Object[]{i, "patient" + i + "@clinic.com", "password", "ID" + i, "Patient", "No" + i})
+                        .toList());
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < visits; i++) {
+            long id = i + 1;
+            LocalDateTime startTime = firstSlot.plusMinutes(15L * (i / doctors));
+            batch.add(new Object[]{id, 1 + i % doctors, id % 2 == 0 ? null : 1 + id % PATIENTS,
+                    Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusMinutes(15))});
+            if (batch.size() == BATCH_SIZE) {
+                insertVisits(jdbcTemplate, batch);
+            }
+        }
+        insertVisits(jdbcTemplate, batch);
+
+        jdbcTemplate.execute("ALTER SEQUENCE DOCTOR_SEQ RESTART WITH " + (doctors + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE PATIENT_SEQ RESTART WITH " + (PATIENTS + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE VISIT_SEQ RESTART WITH " + (visits + 1));
+        return doctors;
+    }
+
+    private static void insertVisits(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO VISIT (id, doctor_id, patient_id, startTime, endTime) VALUES (?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.medicalclinic.benchmark;
+
+import com.example.medicalclinic.MedicalClinicApplication;
+import com.example.medicalclinic.model.entity.Patient;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts {@code rows} patients per invocation. {@code identity_rowByRow} replays what Hibernate does for an
+ * IDENTITY id (one insert and generated-key read per row) against a scratch table, {@code sequence_jdbcBatch}
+ * the pooled-lo allocation (one sequence call per {@value #INCREMENT} rows, one JDBC batch per block), and
+ * {@code sequence_hibernate} persists {@link Patient} entities through Hibernate with its configured batching.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsertThroughputBenchmark {
+    private static final int INCREMENT = 50;
+    private static final int FLUSH_INTERVAL = 1000;
+    private static final String INSERT_IDENTITY = "INSERT INTO IDENTITY_PATIENT (email, password, idCardNo, firstName, lastName) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_SEQUENCE = "INSERT INTO PATIENT (id, email, password, idCardNo, firstName, lastName) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Param({"100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MedicalClinicApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "spring.liquibase.parameters.id.increment=" + INCREMENT)
+                .run();
+        dataSource = context.getBean(DataSource.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate.execute("CREATE TABLE IDENTITY_PATIENT (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "email VARCHAR(255) NOT NULL UNIQUE, password VARCHAR(255) NOT NULL, idCardNo VARCHAR(255) NOT NULL UNIQUE, "
+                + "firstName VARCHAR(255) NOT NULL, lastName VARCHAR(255) NOT NULL)");
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE IDENTITY_PATIENT");
+        jdbcTemplate.execute("DELETE FROM PATIENT");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long identity_rowByRow() throws SQLException {
+        long lastId = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(INSERT_IDENTITY, Statement.RETURN_GENERATED_KEYS)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < rows; i++) {
+                bind(insert, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+            connection.commit();
+        }
+        return lastId;
+    }
+
+    @Benchmark
+    public long sequence_jdbcBatch() throws SQLException {
+        long lastId = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement nextBlock = connection.prepareStatement("SELECT NEXT VALUE FOR PATIENT_SEQ");
+             PreparedStatement insert = connection.prepareStatement(INSERT_SEQUENCE)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < rows; i++) {
+                if (i % INCREMENT == 0) {
+                    try (ResultSet block = nextBlock.executeQuery()) {
+                        block.next();
+                        lastId = block.getLong(1);
+                    }
+                } else {
+                    lastId++;
+                }
+                insert.setLong(1, lastId);
+                bind(insert, i, 2);
+                insert.addBatch();
+                if (i % INCREMENT == INCREMENT - 1) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        return lastId;
+    }
+
+    @Benchmark
+    public long sequence_hibernate() {
+        return transactionTemplate.execute(status -> {
+            long lastId = 0;
+            for (int i = 0; i < rows; i++) {
+                Patient patient = Patient.builder()
+                        .email("patient" + i + "@clinic.com")
+                        .password("password")
+                        .idCardNo("ID" + i)
+                        .firstName("Patient")
+                        .lastName("No" + i)
+                        .build();
+                entityManager.persist(patient);
+                lastId = patient.getId();
+                if (i % FLUSH_INTERVAL == FLUSH_INTERVAL - 1) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            return lastId;
+        });
+    }
+
+    private static void bind(PreparedStatement statement, int row) throws SQLException {
+        bind(statement, row, 1);
+    }
+
+    private static void bind(PreparedStatement statement, int row, int firstIndex) throws SQLException {
+        statement.setString(firstIndex, "patient" + row + "@clinic.com");
+        statement.setString(firstIndex + 1, "password");
+        statement.setString(firstIndex + 2, "ID" + row);
+        statement.setString(firstIndex + 3, "Patient");
+        statement.setString(firstIndex + 4, "No" + row);
+    }
+}
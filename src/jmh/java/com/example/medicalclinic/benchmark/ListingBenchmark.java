@@ -0,0 +1,109 @@
+package com.example.medicalclinic.benchmark;
+
+import com.example.medicalclinic.MedicalClinicApplication;
+import com.example.medicalclinic.mapper.DoctorMapper;
+import com.example.medicalclinic.mapper.PatientMapper;
+import com.example.medicalclinic.model.dto.DoctorDTO;
+import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.PatientDTO;
+import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.repository.DoctorRepository;
+import com.example.medicalclinic.repository.PatientRepository;
+import com.example.medicalclinic.service.DoctorService;
+import com.example.medicalclinic.service.PatientService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List endpoints backed by DTO projections against the previous entity-loading path (entity page mapped
+ * through MapStruct in a read-only transaction). Run with {@code -prof gc} to compare allocation per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListingBenchmark {
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private DoctorService doctorService;
+    private PatientRepository patientRepository;
+    private DoctorRepository doctorRepository;
+    private PatientMapper patientMapper;
+    private DoctorMapper doctorMapper;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MedicalClinicApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        patientService = context.getBean(PatientService.class);
+        doctorService = context.getBean(DoctorService.class);
+        patientRepository = context.getBean(PatientRepository.class);
+        doctorRepository = context.getBean(DoctorRepository.class);
+        patientMapper = context.getBean(PatientMapper.class);
+        doctorMapper = context.getBean(DoctorMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        ClinicDataSeeder.seed(context.getBean(JdbcTemplate.class), 100_000, LocalDate.now().plusDays(1).atStartOfDay());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageableContentDTO<PatientDTO> patients_projection() {
+        return patientService.getAllPatients(randomPage(ClinicDataSeeder.PATIENTS));
+    }
+
+    @Benchmark
+    public PageableContentDTO<PatientDTO> patients_entities() {
+        Pageable pageable = randomPage(ClinicDataSeeder.PATIENTS);
+        return readOnlyTransaction.execute(status -> {
+            Page<Patient> page = patientRepository.findAll(pageable);
+            return PageableContentDTO.from(page, page.getContent().stream().map(patientMapper::toDTO).toList());
+        });
+    }
+
+    @Benchmark
+    public PageableContentDTO<DoctorDTO> doctors_projection() {
+        return doctorService.getAllDoctors(randomPage(100));
+    }
+
+    @Benchmark
+    public PageableContentDTO<DoctorDTO> doctors_entities() {
+        Pageable pageable = randomPage(100);
+        return readOnlyTransaction.execute(status -> {
+            Page<Doctor> page = doctorRepository.findAll(pageable);
+            return PageableContentDTO.from(page, page.getContent().stream().map(doctorMapper::toDTO).toList());
+        });
+    }
+
+    private Pageable randomPage(int rows) {
+        return PageRequest.of(ThreadLocalRandom.current().nextInt(Math.max(1, rows / pageSize)), pageSize);
+    }
+}
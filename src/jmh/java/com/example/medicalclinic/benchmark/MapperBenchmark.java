@@ -0,0 +1,121 @@
+package com.example.medicalclinic.benchmark;
+
+import com.example.medicalclinic.index.DoctorFacilityIndex;
+import com.example.medicalclinic.mapper.DoctorMapper;
+import com.example.medicalclinic.mapper.FacilityMapper;
+import com.example.medicalclinic.mapper.VisitMapper;
+import com.example.medicalclinic.model.dto.FacilityDTO;
+import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.VisitDTO;
+import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Facility;
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.model.projection.FacilityView;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private final VisitMapper visitMapper = Mappers.getMapper(VisitMapper.class);
+    private final DoctorMapper doctorMapper = Mappers.getMapper(DoctorMapper.class);
+    private final FacilityMapper facilityMapper = Mappers.getMapper(FacilityMapper.class);
+    private final DoctorFacilityIndex doctorFacilityIndex = new DoctorFacilityIndex(null);
+
+    private Visit visit;
+    private Doctor doctor;
+    private List<Facility> facilities;
+    private List<FacilityView> facilityViews;
+    private PageImpl<Visit> visitPage;
+
+    @Setup
+    public void setUp() {
+        facilities = IntStream.range(0, pageSize)
+                .mapToObj(i -> Facility.builder()
+                        .id((long) i)
+                        .facilityName("Facility " + i)
+                        .city("City")
+                        .postcode("00-000")
+                        .street("Street")
+                        .buildingNumber(String.valueOf(i))
+                        .doctors(new HashSet<>())
+                        .build())
+                .toList();
+        List<Doctor> doctors = IntStream.range(0, pageSize)
+                .mapToObj(i -> Doctor.builder()
+                        .id((long) i)
+                        .email("doctor" + i + "@clinic.com")
+                        .password("password")
+                        .facilities(new HashSet<>(facilities.subList(0, Math.min(5, pageSize))))
+                        .build())
+                .toList();
+        facilities.forEach(facility -> facility.getDoctors().addAll(doctors.subList(0, Math.min(10, pageSize))));
+        facilities.forEach(facility -> facility.getDoctors()
+                .forEach(linked -> doctorFacilityIndex.link(linked.getId(), facility.getId())));
+        facilityViews = facilities.stream()
+                .map(facility -> new FacilityView(facility.getId(), facility.getFacilityName(), facility.getCity(),
+                        facility.getPostcode(), facility.getStreet(), facility.getBuildingNumber(),
+                        facility.getLatitude(), facility.getLongitude()))
+                .toList();
+        doctor = doctors.get(0);
+
+        LocalDateTime startTime = LocalDateTime.now().plusDays(1);
+        Patient patient = Patient.builder().id(1L).email("patient@clinic.com").build();
+        List<Visit> visits = IntStream.range(0, pageSize)
+                .mapToObj(i -> Visit.builder()
+                        .id((long) i)
+                        .doctor(doctors.get(i))
+                        .patient(patient)
+                        .startTime(startTime.plusMinutes(15L * i))
+                        .endTime(startTime.plusMinutes(15L * (i + 1)))
+                        .build())
+                .toList();
+        visit = visits.get(0);
+        visitPage = new PageImpl<>(visits, PageRequest.of(0, pageSize), 1_000_000L);
+    }
+
+    @Benchmark
+    public VisitDTO visitToDto() {
+        return visitMapper.toDto(visit);
+    }
+
+    @Benchmark
+    public Object doctorToDto() {
+        return doctorMapper.toDTO(doctor);
+    }
+
+    @Benchmark
+    public List<FacilityDTO> facilityListToDto() {
+        return facilityMapper.listToDto(facilities);
+    }
+
+    @Benchmark
+    public List<FacilityDTO> facilityViewListToDto() {
+        return facilityViews.stream()
+                .map(facility -> facilityMapper.toDto(facility, doctorFacilityIndex.doctorIdsOf(facility.id())))
+                .toList();
+    }
+
+    @Benchmark
+    public PageableContentDTO<VisitDTO> visitPageToContent() {
+        return PageableContentDTO.from(visitPage, visitPage.getContent().stream()
+                .map(visitMapper::toDto)
+                .toList());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.medicalclinic.benchmark;
+
+import com.example.medicalclinic.MedicalClinicApplication;
+import com.example.medicalclinic.model.CreateDoctorCommand;
+import com.example.medicalclinic.model.dto.DoctorDTO;
+import com.example.medicalclinic.model.dto.PatientDTO;
+import com.example.medicalclinic.service.DoctorService;
+import com.example.medicalclinic.service.PatientService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the password-writing service calls at different bcrypt costs, with more callers than
+ * hasher threads so the bounded executor is saturated. Cost 4 approximates the old plain-text baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashingBenchmark {
+    @Param({"4", "10", "12"})
+    public int cost;
+
+    @Param({"1", "4"})
+    public int hasherThreads;
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private DoctorService doctorService;
+    private final AtomicLong nextDoctor = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MedicalClinicApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN",
+                        "medical-clinic.password.cost=" + cost,
+                        "medical-clinic.password.threads=" + hasherThreads,
+                        "medical-clinic.password.queue-capacity=10000")
+                .run();
+        patientService = context.getBean(PatientService.class);
+        doctorService = context.getBean(DoctorService.class);
+        ClinicDataSeeder.seed(context.getBean(JdbcTemplate.class), 0, LocalDate.now().plusDays(1).atStartOfDay());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PatientDTO changePassword() {
+        int patient = 1 + ThreadLocalRandom.current().nextInt(ClinicDataSeeder.PATIENTS);
+        return patientService.changePassword("patient" + patient + "@clinic.com", "new-password").join();
+    }
+
+    @Benchmark
+    public DoctorDTO addDoctor() {
+        CreateDoctorCommand command = CreateDoctorCommand.builder()
+                .email("benchmark" + nextDoctor.incrementAndGet() + "@clinic.com")
+                .password("password")
+                .build();
+        return doctorService.addDoctor(command).join();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.medicalclinic.benchmark;
+
+import com.example.medicalclinic.MedicalClinicApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop HTTP load test comparing the platform-thread and virtual-thread Tomcat executors.
+ * Boots the application once per mode, seeds H2 through {@link ClinicDataSeeder}, and drives
+ * {@code GET /visits} and {@code POST /visits/book} with {@code -Dconcurrency} clients for
+ * {@code -DdurationSeconds}, then prints requests per second and p50/p99 latency for each mode.
+ */
+public class RestLoadTest {
+    private static final int VISITS = Integer.getInteger("visits", 100_000);
+    private static final int CONCURRENCY = Integer.getInteger("concurrency", 400);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("durationSeconds", 30));
+
+    public static void main(String[] args) throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-16s %-20s %10s %10s %10s %8s", "mode", "scenario", "req/s", "p50 ms", "p99 ms", "errors"));
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            String mode = virtualThreads ? "virtual" : "platform";
+            try (ConfigurableApplicationContext context = start(virtualThreads, mode)) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                ClinicDataSeeder.seed(context.getBean(JdbcTemplate.class), VISITS, LocalDate.now().plusDays(1).atStartOfDay());
+                String baseUrl = "http://localhost:" + port;
+
+                report.add(run(mode, "GET /visits", i -> HttpRequest.newBuilder(URI.create(baseUrl + "/visits?page="
+                        + ThreadLocalRandom.current().nextInt(100) + "&size=20")).GET().build()));
+                report.add(run(mode, "POST /visits/book", i -> HttpRequest.newBuilder(URI.create(baseUrl + "/visits/book?visitId="
+                        + (1 + ThreadLocalRandom.current().nextInt(VISITS)) + "&patientId="
+                        + (1 + ThreadLocalRandom.current().nextInt(ClinicDataSeeder.PATIENTS))))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build()));
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads, String mode) {
+        return new SpringApplicationBuilder(MedicalClinicApplication.class)
+                .profiles(virtualThreads ? "virtual-threads" : "default")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static String run(String mode, String scenario, IntFunction<HttpRequest> requests) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long deadline = System.nanoTime() + DURATION.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONCURRENCY; c++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            int status = client.send(requests.apply(count), HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 500) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception ex) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        long[] all = clients.stream()
+                .map(RestLoadTest::join)
+                .flatMapToLong(Arrays::stream)
+                .sorted()
+                .toArray();
+        double seconds = DURATION.toMillis() / 1000.0;
+        return String.format("%-16s %-20s %10.0f %10.1f %10.1f %8d", mode, scenario, all.length / seconds,
+                percentileMillis(all, 0.50), percentileMillis(all, 0.99), errors.get());
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
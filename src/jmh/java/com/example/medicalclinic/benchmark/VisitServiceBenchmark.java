@@ -0,0 +1,101 @@
+package com.example.medicalclinic.benchmark;
+
+import com.example.medicalclinic.MedicalClinicApplication;
+import com.example.medicalclinic.exception.VisitException;
+import com.example.medicalclinic.model.dto.VisitDTO;
+import com.example.medicalclinic.service.VisitService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end service benchmarks against an H2 database seeded by {@link ClinicDataSeeder} with {@code visits} rows.
+ * Even visit ids start unbooked and are released again before every iteration;
+ * once they are all taken {@link #bookVisit} measures the already-booked path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VisitServiceBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int visits;
+
+    @Param({"false", "true"})
+    public boolean visitIndexEnabled;
+
+    private ConfigurableApplicationContext context;
+    private VisitService visitService;
+    private JdbcTemplate jdbcTemplate;
+    private LocalDateTime firstSlot;
+    private int doctors;
+    private final AtomicLong nextFreeSlot = new AtomicLong();
+    private final AtomicLong nextBooking = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MedicalClinicApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN",
+                        "medical-clinic.visit-index.enabled=" + visitIndexEnabled)
+                .run();
+        visitService = context.getBean(VisitService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        firstSlot = LocalDate.now().plusDays(1).atTime(0, 0);
+        doctors = ClinicDataSeeder.seed(jdbcTemplate, visits, firstSlot);
+    }
+
+    @Setup(Level.Iteration)
+    public void releaseBookings() {
+        jdbcTemplate.update("UPDATE VISIT SET patient_id = NULL WHERE MOD(id, 2) = 0");
+        nextBooking.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void createVisit_conflict(Blackhole blackhole) {
+        long doctorId = 1 + ThreadLocalRandom.current().nextInt(doctors);
+        LocalDateTime startTime = firstSlot.plusMinutes(15L * ThreadLocalRandom.current().nextInt(ClinicDataSeeder.VISITS_PER_DOCTOR));
+        try {
+            blackhole.consume(visitService.createVisit(doctorId, startTime, startTime.plusMinutes(15)));
+        } catch (VisitException ex) {
+            blackhole.consume(ex);
+        }
+    }
+
+    @Benchmark
+    public VisitDTO createVisit_free() {
+        long slot = nextFreeSlot.getAndIncrement();
+        long doctorId = 1 + slot % doctors;
+        LocalDateTime startTime = firstSlot.plusDays(30).plusMinutes(15L * (slot / doctors));
+        return visitService.createVisit(doctorId, startTime, startTime.plusMinutes(15));
+    }
+
+    @Benchmark
+    public void bookVisit(Blackhole blackhole) {
+        long visitId = 2 * (1 + nextBooking.getAndIncrement() % (visits / 2));
+        long patientId = 1 + visitId % ClinicDataSeeder.PATIENTS;
+        try {
+            blackhole.consume(visitService.bookVisit(visitId, patientId));
+        } catch (VisitException ex) {
+            blackhole.consume(ex);
+        }
+    }
+}
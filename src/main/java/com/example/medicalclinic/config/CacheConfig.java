@@ -0,0 +1,50 @@
+package com.example.medicalclinic.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bounded W-TinyLFU caches for the by-email and by-name lookups and the
+ * serialised list pages. The page caches count their invalidations, see {@link GenerationCache}.
+ * Evictions are deferred until the surrounding transaction commits, so a
+ * concurrent reader can't repopulate an entry with the pre-commit row.
+ */
+@EnableCaching
+@Configuration
+public class CacheConfig {
+    public static final String DOCTORS = "doctors";
+    public static final String PATIENTS = "patients";
+    public static final String FACILITIES = "facilities";
+    public static final String DOCTOR_SCHEDULES = "doctorSchedules";
+    public static final String DOCTOR_PAGES = "doctorPages";
+    public static final String FACILITY_PAGES = "facilityPages";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${medical-clinic.cache.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String spec,
+            @Value("${medical-clinic.cache.schedule-spec:maximumSize=5000,expireAfterWrite=30s,recordStats}") String scheduleSpec,
+            @Value("${medical-clinic.cache.page-spec:maximumSize=200,expireAfterWrite=5m,recordStats}") String pageSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(DOCTORS, PATIENTS, FACILITIES) {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return name.equals(DOCTOR_PAGES) || name.equals(FACILITY_PAGES)
+                        ? new GenerationCache(name, cache, isAllowNullValues())
+                        : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+        cacheManager.registerCustomCache(DOCTOR_SCHEDULES, Caffeine.from(scheduleSpec).build());
+        cacheManager.registerCustomCache(DOCTOR_PAGES, Caffeine.from(pageSpec).build());
+        cacheManager.registerCustomCache(FACILITY_PAGES, Caffeine.from(pageSpec).build());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.medicalclinic.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Startup self-check: verifies a pooled connection can be borrowed and logs the effective pool and
+ * JDBC batching settings of the active profile, warning about combinations that silently disable batching.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DataSourceReport {
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            log.info("Database: {} {} at {}", metaData.getDatabaseProductName(), metaData.getDatabaseProductVersion(), metaData.getURL());
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Database is not reachable", ex);
+        }
+
+        if (dataSource instanceof HikariDataSource pool) {
+            log.info("Connection pool {}: maximumPoolSize={}, minimumIdle={}, connectionTimeout={}ms, maxLifetime={}ms, dataSourceProperties={}",
+                    pool.getPoolName(), pool.getMaximumPoolSize(), pool.getMinimumIdle(), pool.getConnectionTimeout(),
+                    pool.getMaxLifetime(), pool.getDataSourceProperties().keySet());
+        }
+
+        Map<String, Object> properties = entityManagerFactory.getProperties();
+        int batchSize = Integer.parseInt(String.valueOf(properties.getOrDefault("hibernate.jdbc.batch_size", "0")));
+        log.info("JDBC batching: batch_size={}, order_inserts={}, order_updates={}",
+                batchSize, properties.get("hibernate.order_inserts"), properties.get("hibernate.order_updates"));
+        if (batchSize <= 1) {
+            log.warn("JDBC batching is disabled, bulk imports will issue one statement per row");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.medicalclinic.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caffeine cache that counts full invalidations. Caffeine's {@code invalidateAll} does not cancel loads that are
+ * still running, so a reader records the generation before it loads and treats any entry stamped with an older
+ * generation as a miss.
+ */
+public class GenerationCache extends CaffeineCache {
+    private final AtomicLong generation = new AtomicLong();
+
+    public GenerationCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        generation.incrementAndGet();
+        return super.invalidate();
+    }
+}
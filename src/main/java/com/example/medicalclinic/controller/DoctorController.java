@@ -1,32 +1,73 @@
 package com.example.medicalclinic.controller;
 
+import com.example.medicalclinic.config.CacheConfig;
 import com.example.medicalclinic.model.ChangePasswordCommand;
 import com.example.medicalclinic.model.CreateDoctorCommand;
+import com.example.medicalclinic.model.ResourceVersion;
 import com.example.medicalclinic.model.dto.DoctorDTO;
-import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.DoctorScheduleDTO;
+import com.example.medicalclinic.model.dto.SliceContentDTO;
 import com.example.medicalclinic.mapper.DoctorMapper;
 import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.service.ExportService;
 import com.example.medicalclinic.service.DoctorService;
+import com.example.medicalclinic.service.VisitService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/doctors")
 public class DoctorController {
     private final DoctorService doctorService;
+    private final ExportService exportService;
+    private final NdjsonExport ndjsonExport;
+    private final VisitService visitService;
     private final DoctorMapper doctorMapper;
+    private final JsonPageCache jsonPageCache;
 
     @GetMapping
-    public PageableContentDTO<DoctorDTO> getDoctors(Pageable pageable) {
-        return doctorService.getAllDoctors(pageable);
+    public ResponseEntity<byte[]> getDoctors(Pageable pageable) {
+        return jsonPageCache.get(CacheConfig.DOCTOR_PAGES, pageable, () -> doctorService.getAllDoctors(pageable));
+    }
+
+    @GetMapping(params = "withTotal=false")
+    public SliceContentDTO<DoctorDTO> getDoctorsWithoutTotal(Pageable pageable) {
+        return doctorService.getDoctorsSlice(pageable);
+    }
+
+    @GetMapping("/scroll")
+    public SliceContentDTO<DoctorDTO> scrollDoctors(@RequestParam(required = false) String after,
+                                                    @RequestParam(defaultValue = "20") int size) {
+        return doctorService.scrollDoctors(after, size);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportDoctors(WebRequest request) {
+        return ndjsonExport.stream(request, exportService::exportDoctors);
+    }
+
+    @GetMapping("/{id}/schedule")
+    public DoctorScheduleDTO getDoctorSchedule(@PathVariable("id") Long id,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return visitService.getDoctorSchedule(id, date);
     }
 
     @GetMapping("/{email}")
-    public DoctorDTO getDoctorByEmail(@PathVariable("email") String email) {
-        return doctorService.getDoctorByEmail(email);
+    public DoctorDTO getDoctorByEmail(@PathVariable("email") String email, WebRequest request) {
+        DoctorDTO doctor = doctorService.getDoctorByEmail(email);
+        ResourceVersion version = ResourceVersion.of(doctor.getId(), doctor.getVersion(), doctor.getUpdatedAt());
+        return request.checkNotModified(version.eTag(), version.lastModified()) ? null : doctor;
     }
 
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -37,12 +78,12 @@ public class DoctorController {
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
-    public DoctorDTO addDoctor(@RequestBody CreateDoctorCommand command) {
+    public CompletableFuture<DoctorDTO> addDoctor(@RequestBody CreateDoctorCommand command) {
         return doctorService.addDoctor(command);
     }
 
     @PutMapping("/{email}")
-    public DoctorDTO editDoctor(@PathVariable String email, @RequestBody CreateDoctorCommand command) {
+    public CompletableFuture<DoctorDTO> editDoctor(@PathVariable String email, @RequestBody CreateDoctorCommand command) {
         return doctorService.editDoctorByEmail(email, command);
     }
 
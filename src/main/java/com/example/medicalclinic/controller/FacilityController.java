@@ -1,17 +1,23 @@
 package com.example.medicalclinic.controller;
 
+import com.example.medicalclinic.config.CacheConfig;
 import com.example.medicalclinic.model.dto.FacilityDTO;
-import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.NearbyFacilityDTO;
+import com.example.medicalclinic.model.dto.SliceContentDTO;
 import com.example.medicalclinic.mapper.FacilityMapper;
 import com.example.medicalclinic.model.entity.Facility;
 import com.example.medicalclinic.model.CreateFacilityCommand;
+import com.example.medicalclinic.model.ResourceVersion;
 import com.example.medicalclinic.service.FacilityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 @RestController
@@ -19,15 +25,38 @@ import java.util.List;
 public class FacilityController {
     private final FacilityService facilityService;
     private final FacilityMapper facilityMapper;
+    private final JsonPageCache jsonPageCache;
 
     @GetMapping
-    public PageableContentDTO<FacilityDTO> getFacilities(Pageable pageable) {
-        return facilityService.getAllFacilities(pageable);
+    public ResponseEntity<byte[]> getFacilities(Pageable pageable) {
+        return jsonPageCache.get(CacheConfig.FACILITY_PAGES, pageable, () -> facilityService.getAllFacilities(pageable));
+    }
+
+    @GetMapping(params = "withTotal=false")
+    public SliceContentDTO<FacilityDTO> getFacilitiesWithoutTotal(Pageable pageable) {
+        return facilityService.getFacilitiesSlice(pageable);
+    }
+
+    @GetMapping("/scroll")
+    public SliceContentDTO<FacilityDTO> scrollFacilities(@RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = "20") int size) {
+        return facilityService.scrollFacilities(after, size);
+    }
+
+    @GetMapping("/near")
+    public List<NearbyFacilityDTO> getFacilitiesNear(@RequestParam(required = false) Double lat,
+                                                     @RequestParam(required = false) Double lon,
+                                                     @RequestParam(defaultValue = "10") double radiusKm,
+                                                     @RequestParam(required = false) String postcode,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        return facilityService.findNearby(lat, lon, radiusKm, postcode, limit);
     }
 
     @GetMapping("/{facilityName}")
-    public FacilityDTO getFacilityByName(@PathVariable("facilityName") String facilityName) {
-        return facilityService.getFacilityByName(facilityName);
+    public FacilityDTO getFacilityByName(@PathVariable("facilityName") String facilityName, WebRequest request) {
+        FacilityDTO facility = facilityService.getFacilityByName(facilityName);
+        ResourceVersion version = ResourceVersion.of(facility.getId(), facility.getVersion(), facility.getUpdatedAt());
+        return request.checkNotModified(version.eTag(), version.lastModified()) ? null : facility;
     }
 
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -43,7 +72,7 @@ public class FacilityController {
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
-    public List<FacilityDTO> createFacilitiesWithDoctors(@RequestBody List<CreateFacilityCommand> requests) {
+    public CompletableFuture<List<FacilityDTO>> createFacilitiesWithDoctors(@RequestBody List<CreateFacilityCommand> requests) {
         return facilityService.saveFacilitiesWithDoctors(requests);
     }
 }
\ No newline at end of file
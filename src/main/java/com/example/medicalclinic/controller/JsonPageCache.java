@@ -0,0 +1,112 @@
+package com.example.medicalclinic.controller;
+
+import com.example.medicalclinic.config.GenerationCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Serialised JSON of the hot list pages, one cache per endpoint keyed by page, size and sort. A hit is written
+ * to the response as the stored bytes, skipping both the queries and Jackson; pages beyond {@code max-page} are
+ * always rendered. Entries are evicted by the service write methods once their transaction commits; a page
+ * stored by a render that started before such an eviction carries the older cache generation and is re-rendered.
+ */
+@Component
+public class JsonPageCache {
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final int maxPage;
+    private final Counter servedBytes;
+    private final Counter renderedBytes;
+
+    public JsonPageCache(CacheManager cacheManager,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${medical-clinic.cache.page-max:4}") int maxPage) {
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.maxPage = maxPage;
+        this.servedBytes = Counter.builder("clinic.page.cache.bytes")
+                .baseUnit("bytes")
+                .tag("result", "served")
+                .register(meterRegistry);
+        this.renderedBytes = Counter.builder("clinic.page.cache.bytes")
+                .baseUnit("bytes")
+                .tag("result", "rendered")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<byte[]> get(String cacheName, Pageable pageable, Supplier<?> loader) {
+        byte[] body;
+        if (pageable.isUnpaged() || pageable.getPageNumber() > maxPage) {
+            body = render(loader.get());
+        } else {
+            Cache cache = cacheManager.getCache(cacheName);
+            String key = key(pageable);
+            long generation = generationOf(cache);
+            AtomicBoolean rendered = new AtomicBoolean();
+            Supplier<RenderedPage> renderer = () -> {
+                rendered.set(true);
+                return new RenderedPage(generation, render(loader.get()));
+            };
+            RenderedPage page = lookup(cache, key, renderer);
+            if (page.generation() < generation) {
+                cache.evict(key);
+                page = lookup(cache, key, renderer);
+            }
+            body = page.body();
+            if (!rendered.get()) {
+                servedBytes.increment(body.length);
+            }
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private byte[] render(Object page) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(page);
+            renderedBytes.increment(body.length);
+            return body;
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static RenderedPage lookup(Cache cache, String key, Supplier<RenderedPage> renderer) {
+        try {
+            return cache.get(key, renderer::get);
+        } catch (Cache.ValueRetrievalException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static long generationOf(Cache cache) {
+        Cache target = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+        return target instanceof GenerationCache generationCache ? generationCache.generation() : 0;
+    }
+
+    private static String key(Pageable pageable) {
+        return pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+    }
+
+    private record RenderedPage(long generation, byte[] body) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.medicalclinic.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * NDJSON export responses. A {@link StreamingResponseBody} is written under the async timeout of its request,
+ * so the long {@code medical-clinic.export.timeout-millis} is set on the export requests alone and every other
+ * async endpoint keeps the default one.
+ */
+@Component
+public class NdjsonExport {
+    private final long timeoutMillis;
+
+    public NdjsonExport(@Value("${medical-clinic.export.timeout-millis:1800000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public ResponseEntity<StreamingResponseBody> stream(WebRequest request, StreamingResponseBody body) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(timeoutMillis);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
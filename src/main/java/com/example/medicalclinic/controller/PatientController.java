@@ -1,21 +1,37 @@
 package com.example.medicalclinic.controller;
 
 import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.SliceContentDTO;
 import com.example.medicalclinic.mapper.PatientMapper;
 import com.example.medicalclinic.model.ChangePasswordCommand;
+import com.example.medicalclinic.model.ResourceVersion;
 import com.example.medicalclinic.model.entity.Patient;
 import com.example.medicalclinic.model.dto.PatientDTO;
+import com.example.medicalclinic.model.dto.PatientImportDTO;
+import com.example.medicalclinic.service.ExportService;
+import com.example.medicalclinic.service.PatientImportService;
 import com.example.medicalclinic.service.PatientService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/patients")
 public class PatientController {
     private final PatientService patientService;
+    private final ExportService exportService;
+    private final NdjsonExport ndjsonExport;
+    private final PatientImportService patientImportService;
     private final PatientMapper patientMapper;
 
     @GetMapping
@@ -23,9 +39,33 @@ public class PatientController {
         return patientService.getAllPatients(pageable);
     }
 
+    @GetMapping(params = "withTotal=false")
+    public SliceContentDTO<PatientDTO> getPatientsWithoutTotal(Pageable pageable) {
+        return patientService.getPatientsSlice(pageable);
+    }
+
+    @GetMapping("/scroll")
+    public SliceContentDTO<PatientDTO> scrollPatients(@RequestParam(required = false) String after,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        return patientService.scrollPatients(after, size);
+    }
+
+    @GetMapping("/search")
+    public List<PatientDTO> searchPatients(@RequestParam("q") String query,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        return patientService.searchPatients(query, limit);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPatients(WebRequest request) {
+        return ndjsonExport.stream(request, exportService::exportPatients);
+    }
+
     @GetMapping("/{email}")
-    public PatientDTO getPatientByEmail(@PathVariable("email") String email) {
-        return patientService.getPatientByEmail(email);
+    public PatientDTO getPatientByEmail(@PathVariable("email") String email, WebRequest request) {
+        PatientDTO patient = patientService.getPatientByEmail(email);
+        ResourceVersion version = ResourceVersion.of(patient.getId(), patient.getVersion(), patient.getUpdatedAt());
+        return request.checkNotModified(version.eTag(), version.lastModified()) ? null : patient;
     }
 
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -36,17 +76,27 @@ public class PatientController {
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
-    public PatientDTO addPatient(@RequestBody Patient patient) {
+    public CompletableFuture<PatientDTO> addPatient(@RequestBody Patient patient) {
         return patientService.addPatient(patient);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public PatientImportDTO importPatientsCsv(InputStream body) {
+        return patientImportService.importCsv(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public PatientImportDTO importPatientsNdjson(InputStream body) {
+        return patientImportService.importNdjson(body);
+    }
+
     @PutMapping("/{email}")
-    public PatientDTO editPatient(@PathVariable("email") String email, @RequestBody Patient patient) {
+    public CompletableFuture<PatientDTO> editPatient(@PathVariable("email") String email, @RequestBody Patient patient) {
         return patientService.editPatientByEmail(email, patient);
     }
 
     @PatchMapping("/{email}/password")
-    public Patient editPatientPassword(@PathVariable String email, @RequestBody ChangePasswordCommand request) {
+    public CompletableFuture<PatientDTO> editPatientPassword(@PathVariable String email, @RequestBody ChangePasswordCommand request) {
         return patientService.changePassword(email, request.password());
     }
 }
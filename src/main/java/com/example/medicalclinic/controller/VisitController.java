@@ -1,13 +1,28 @@
 package com.example.medicalclinic.controller;
 
 import com.example.medicalclinic.model.CreateVisitCommand;
+import com.example.medicalclinic.model.CreateVisitScheduleCommand;
+import com.example.medicalclinic.model.Versioned;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.SliceContentDTO;
 import com.example.medicalclinic.model.dto.VisitDTO;
+import com.example.medicalclinic.model.dto.VisitScheduleDTO;
+import com.example.medicalclinic.service.BookingQueue;
+import com.example.medicalclinic.service.ExportService;
 import com.example.medicalclinic.service.VisitService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 @RequiredArgsConstructor
@@ -15,6 +30,9 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/visits")
 public class VisitController {
     private final VisitService visitService;
+    private final ExportService exportService;
+    private final NdjsonExport ndjsonExport;
+    private final BookingQueue bookingQueue;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -22,13 +40,49 @@ public class VisitController {
         return visitService.createVisit(request.doctorId(), request.startTime(), request.endTime());
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public VisitScheduleDTO createVisitSchedule(@RequestBody CreateVisitScheduleCommand request) {
+        return visitService.createVisitSchedule(request);
+    }
+
     @PostMapping("/book")
-    public VisitDTO bookVisit(@RequestParam Long visitId, @RequestParam Long patientId) {
-        return visitService.bookVisit(visitId, patientId);
+    public CompletableFuture<VisitDTO> bookVisit(@RequestParam Long visitId, @RequestParam Long patientId) {
+        if (bookingQueue.isEnabled()) {
+            return bookingQueue.submit(visitId, patientId);
+        }
+        return CompletableFuture.completedFuture(visitService.bookVisit(visitId, patientId));
     }
 
     @GetMapping
-    public PageableContentDTO<VisitDTO> getVisits(Pageable pageable) {
-        return visitService.getVisits(pageable);
+    public PageableContentDTO<VisitDTO> getVisits(Pageable pageable, WebRequest request) {
+        Versioned<PageableContentDTO<VisitDTO>> visits = visitService.getVisits(pageable);
+        if (request.checkNotModified(visits.version().eTag())) {
+            return null;
+        }
+        return visits.content();
+    }
+
+    @GetMapping(params = "withTotal=false")
+    public SliceContentDTO<VisitDTO> getVisitsWithoutTotal(Pageable pageable) {
+        return visitService.getVisitsSlice(pageable);
+    }
+
+    @GetMapping("/available")
+    public List<VisitDTO> getAvailableVisits(@RequestParam String facility,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return visitService.findAvailableVisits(facility, from, to);
+    }
+
+    @GetMapping("/scroll")
+    public SliceContentDTO<VisitDTO> scrollVisits(@RequestParam(required = false) String after,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        return visitService.scrollVisits(after, size);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportVisits(WebRequest request) {
+        return ndjsonExport.stream(request, exportService::exportVisits);
     }
 }
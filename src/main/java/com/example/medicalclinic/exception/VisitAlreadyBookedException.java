@@ -0,0 +1,7 @@
+package com.example.medicalclinic.exception;
+
+public class VisitAlreadyBookedException extends VisitException {
+    public VisitAlreadyBookedException(String message) {
+        super(message);
+    }
+}
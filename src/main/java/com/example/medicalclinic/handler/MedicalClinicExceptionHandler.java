@@ -2,9 +2,13 @@ package com.example.medicalclinic.handler;
 
 import com.example.medicalclinic.exception.DoctorException;
 import com.example.medicalclinic.exception.FacilityException;
+import com.example.medicalclinic.exception.InvalidRequestException;
 import com.example.medicalclinic.exception.PatientException;
+import com.example.medicalclinic.exception.VisitAlreadyBookedException;
 import com.example.medicalclinic.exception.VisitException;
 import com.example.medicalclinic.model.ErrorMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -12,37 +16,66 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
 
+@RequiredArgsConstructor
 @RestControllerAdvice
 public class MedicalClinicExceptionHandler extends ResponseEntityExceptionHandler {
+    private final MeterRegistry meterRegistry;
+
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(PatientException.class)
     public ErrorMessage handlePatientException(PatientException ex) {
-        return buildErrorResponse(ex.getMessage());
+        return buildErrorResponse(ex);
     }
 
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(DoctorException.class)
     public ErrorMessage handleDoctorException(DoctorException ex) {
-        return buildErrorResponse(ex.getMessage());
+        return buildErrorResponse(ex);
     }
 
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(FacilityException.class)
     public ErrorMessage handleFacilityException(FacilityException ex) {
-        return buildErrorResponse(ex.getMessage());
+        return buildErrorResponse(ex);
     }
 
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(VisitException.class)
     public ErrorMessage handleVisitException(VisitException ex) {
-        return buildErrorResponse(ex.getMessage());
+        return buildErrorResponse(ex);
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(VisitAlreadyBookedException.class)
+    public ErrorMessage handleVisitAlreadyBookedException(VisitAlreadyBookedException ex) {
+        return buildErrorResponse(ex, HttpStatus.CONFLICT);
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidRequestException.class)
+    public ErrorMessage handleInvalidRequestException(InvalidRequestException ex) {
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST);
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ErrorMessage handleRejectedExecutionException(RejectedExecutionException ex) {
+        return buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private ErrorMessage buildErrorResponse(RuntimeException ex) {
+        return buildErrorResponse(ex, HttpStatus.NOT_FOUND);
     }
 
-    private ErrorMessage buildErrorResponse(String message) {
+    private ErrorMessage buildErrorResponse(RuntimeException ex, HttpStatus status) {
+        meterRegistry.counter("clinic.errors",
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
         return ErrorMessage.builder()
-                .message(message)
-                .status(HttpStatus.NOT_FOUND)
+                .message(ex.getMessage())
+                .status(status)
                 .errorTime(LocalDateTime.now())
                 .build();
     }
@@ -0,0 +1,129 @@
+package com.example.medicalclinic.index;
+
+import com.example.medicalclinic.model.projection.VisitStartView;
+import com.example.medicalclinic.repository.VisitRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Per-doctor, per-day bitmap of quarter-hours at which an unbooked visit starts.
+ * Bit {@code hour * 4 + minute / 15} of a 96-bit day (two longs) is set while that visit is free,
+ * so checking a doctor for any free slot in a window is a mask-and per day.
+ * The bitmap only narrows the candidate doctors; callers confirm against the database.
+ * Days before today are dropped by the first search of each new day, since searches never look into the past,
+ * and so is a doctor left without days.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityIndex {
+    public static final int QUARTERS_PER_DAY = 96;
+    private static final int WORDS = 2;
+
+    private final VisitRepository visitRepository;
+    private final Map<Long, Map<LocalDate, AtomicLongArray>> freeStarts = new ConcurrentHashMap<>();
+    private final AtomicReference<LocalDate> prunedBefore = new AtomicReference<>(LocalDate.MIN);
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        freeStarts.clear();
+        try (Stream<VisitStartView> freeVisits = visitRepository.streamFreeVisitStarts(LocalDate.now().atStartOfDay())) {
+            freeVisits.forEach(visit -> markFree(visit.getDoctorId(), visit.getStartTime()));
+        }
+    }
+
+    public void markFree(Long doctorId, LocalDateTime startTime) {
+        int quarter = quarterOf(startTime);
+        freeStarts.compute(doctorId, (id, days) -> {
+            Map<LocalDate, AtomicLongArray> updated = days != null ? days : new ConcurrentHashMap<>();
+            updated.computeIfAbsent(startTime.toLocalDate(), day -> new AtomicLongArray(WORDS))
+                    .getAndUpdate(quarter >>> 6, word -> word | 1L << quarter);
+            return updated;
+        });
+    }
+
+    public void markBooked(Long doctorId, LocalDateTime startTime) {
+        int quarter = quarterOf(startTime);
+        AtomicLongArray day = freeStarts.getOrDefault(doctorId, Map.of()).get(startTime.toLocalDate());
+        if (day != null) {
+            day.getAndUpdate(quarter >>> 6, word -> word & ~(1L << quarter));
+        }
+    }
+
+    public Set<Long> doctorsWithFreeSlots(Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to) {
+        pruneBefore(LocalDate.now());
+        Set<Long> doctors = new LinkedHashSet<>();
+        for (Long doctorId : doctorIds) {
+            if (hasFreeSlot(freeStarts.getOrDefault(doctorId, Map.of()), from, to)) {
+                doctors.add(doctorId);
+            }
+        }
+        return doctors;
+    }
+
+    void pruneBefore(LocalDate today) {
+        LocalDate pruned = prunedBefore.get();
+        if (!pruned.isBefore(today) || !prunedBefore.compareAndSet(pruned, today)) {
+            return;
+        }
+        for (Long doctorId : freeStarts.keySet()) {
+            freeStarts.computeIfPresent(doctorId, (id, days) -> {
+                days.keySet().removeIf(day -> day.isBefore(today));
+                return days.isEmpty() ? null : days;
+            });
+        }
+    }
+
+    private static boolean hasFreeSlot(Map<LocalDate, AtomicLongArray> days, LocalDateTime from, LocalDateTime to) {
+        if (days.isEmpty()) {
+            return false;
+        }
+        for (LocalDate day = from.toLocalDate(); day.atStartOfDay().isBefore(to); day = day.plusDays(1)) {
+            AtomicLongArray starts = days.get(day);
+            if (starts == null) {
+                continue;
+            }
+            int fromQuarter = day.equals(from.toLocalDate()) ? ceilQuarterOf(from) : 0;
+            int toQuarter = day.equals(to.toLocalDate()) ? ceilQuarterOf(to) : QUARTERS_PER_DAY;
+            for (int word = 0; word < WORDS; word++) {
+                if ((starts.get(word) & mask(word, fromQuarter, toQuarter)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static long mask(int word, int fromQuarter, int toQuarter) {
+        int low = Math.max(fromQuarter, word << 6) - (word << 6);
+        int high = Math.min(toQuarter, (word + 1) << 6) - (word << 6);
+        if (low >= high) {
+            return 0L;
+        }
+        long bits = high - low == Long.SIZE ? -1L : (1L << (high - low)) - 1;
+        return bits << low;
+    }
+
+    static int quarterOf(LocalDateTime time) {
+        return time.getHour() * 4 + time.getMinute() / 15;
+    }
+
+    private static int ceilQuarterOf(LocalDateTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute() + (time.getSecond() > 0 || time.getNano() > 0 ? 1 : 0);
+        return (minutes + 14) / 15;
+    }
+}
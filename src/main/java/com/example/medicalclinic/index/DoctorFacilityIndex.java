@@ -0,0 +1,178 @@
+package com.example.medicalclinic.index;
+
+import com.example.medicalclinic.model.projection.IdPair;
+import com.example.medicalclinic.repository.DoctorRepository;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Both directions of the doctor-facility membership as sorted {@code long[]} id arrays, loaded from
+ * {@code doctor_facility} at startup and kept current by the services after their transaction commits.
+ * The load runs once every singleton exists but before the web server starts, so no link committed by a request
+ * can be overwritten by the startup snapshot.
+ * Arrays are never mutated in place: writers are serialised and swap in a copy, so readers need no lock.
+ */
+@Component
+@RequiredArgsConstructor
+public class DoctorFacilityIndex implements SmartInitializingSingleton {
+    private static final long[] NONE = new long[0];
+
+    private final DoctorRepository doctorRepository;
+    private final Map<Long, long[]> facilitiesByDoctor = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> doctorsByFacility = new ConcurrentHashMap<>();
+    private final Lock writeLock = new ReentrantLock();
+
+    @Override
+    @Transactional(readOnly = true)
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, LongList> facilities = new HashMap<>();
+        Map<Long, LongList> doctors = new HashMap<>();
+        try (Stream<IdPair> links = doctorRepository.streamFacilityLinks()) {
+            links.forEach(link -> {
+                facilities.computeIfAbsent(link.ownerId(), id -> new LongList()).add(link.linkedId());
+                doctors.computeIfAbsent(link.linkedId(), id -> new LongList()).add(link.ownerId());
+            });
+        }
+        writeLock.lock();
+        try {
+            facilitiesByDoctor.clear();
+            doctorsByFacility.clear();
+            facilities.forEach((doctorId, ids) -> facilitiesByDoctor.put(doctorId, ids.toSortedArray()));
+            doctors.forEach((facilityId, ids) -> doctorsByFacility.put(facilityId, ids.toSortedArray()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public long[] facilityIdsOf(long doctorId) {
+        return facilitiesByDoctor.getOrDefault(doctorId, NONE);
+    }
+
+    public long[] doctorIdsOf(long facilityId) {
+        return doctorsByFacility.getOrDefault(facilityId, NONE);
+    }
+
+    public void link(long doctorId, long facilityId) {
+        writeLock.lock();
+        try {
+            facilitiesByDoctor.put(doctorId, insert(facilitiesByDoctor.getOrDefault(doctorId, NONE), facilityId));
+            doctorsByFacility.put(facilityId, insert(doctorsByFacility.getOrDefault(facilityId, NONE), doctorId));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void unlink(long doctorId, long facilityId) {
+        writeLock.lock();
+        try {
+            remove(facilitiesByDoctor, doctorId, facilityId);
+            remove(doctorsByFacility, facilityId, doctorId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void removeDoctor(Long doctorId) {
+        if (doctorId == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            for (long facilityId : facilitiesByDoctor.getOrDefault(doctorId, NONE)) {
+                remove(doctorsByFacility, facilityId, doctorId);
+            }
+            facilitiesByDoctor.remove(doctorId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void removeFacility(Long facilityId) {
+        if (facilityId == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            for (long doctorId : doctorsByFacility.getOrDefault(facilityId, NONE)) {
+                remove(facilitiesByDoctor, doctorId, facilityId);
+            }
+            doctorsByFacility.remove(facilityId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Whether an entity's link collection is already in memory, or has pending changes the index has not
+     * seen yet, so mapping should read the collection rather than the index.
+     */
+    public static boolean isLoaded(Collection<?> links) {
+        return links == null || Hibernate.isInitialized(links)
+                || links instanceof PersistentCollection<?> collection && collection.hasQueuedOperations();
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return ids;
+        }
+        int at = -index - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, at);
+        updated[at] = id;
+        System.arraycopy(ids, at, updated, at + 1, ids.length - at);
+        return updated;
+    }
+
+    private static void remove(Map<Long, long[]> index, long key, long id) {
+        long[] ids = index.getOrDefault(key, NONE);
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return;
+        }
+        if (ids.length == 1) {
+            index.remove(key);
+            return;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, at);
+        System.arraycopy(ids, at + 1, updated, at, ids.length - at - 1);
+        index.put(key, updated);
+    }
+
+    private static final class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.medicalclinic.index;
+
+import com.example.medicalclinic.model.projection.FacilityLocation;
+import com.example.medicalclinic.repository.FacilityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Facility locations for proximity search. Facilities with coordinates are bucketed into a grid of
+ * {@value #CELL_DEGREES}-degree cells, so a radius query only scans the cells overlapping its bounding box and
+ * ranks those candidates by great-circle distance. Every facility is also kept under its normalised postcode for
+ * prefix lookups, which covers facilities without coordinates.
+ * Writers are serialised; queries run lock-free against the concurrent maps.
+ */
+@Component
+@RequiredArgsConstructor
+public class FacilityGeoIndex {
+    static final double CELL_DEGREES = 0.1;
+    private static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.toRadians(EARTH_RADIUS_KM);
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]");
+
+    private final FacilityRepository facilityRepository;
+    private final Map<Long, FacilityLocation> locations = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Long>> facilitiesByCell = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Set<Long>> facilitiesByPostcode = new ConcurrentSkipListMap<>();
+    private final Lock writeLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            locations.clear();
+            facilitiesByCell.clear();
+            facilitiesByPostcode.clear();
+        } finally {
+            writeLock.unlock();
+        }
+        try (Stream<FacilityLocation> facilities = facilityRepository.streamLocations()) {
+            facilities.forEach(this::index);
+        }
+    }
+
+    public void index(FacilityLocation location) {
+        if (location.id() == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            removeLocked(location.id());
+            locations.put(location.id(), location);
+            if (location.hasCoordinates()) {
+                facilitiesByCell.computeIfAbsent(cellOf(location.latitude(), location.longitude()),
+                        cell -> ConcurrentHashMap.newKeySet()).add(location.id());
+            }
+            String postcode = normalize(location.postcode());
+            if (!postcode.isEmpty()) {
+                facilitiesByPostcode.computeIfAbsent(postcode, key -> ConcurrentHashMap.newKeySet()).add(location.id());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long facilityId) {
+        if (facilityId == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            removeLocked(facilityId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Facilities within {@code radiusKm} of the point, nearest first.
+     */
+    public List<Nearby> near(double latitude, double longitude, double radiusKm, int limit) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        int fromRow = Math.max(0, rowOf(latitude - latitudeDelta));
+        int toRow = Math.min(ROWS - 1, rowOf(latitude + latitudeDelta));
+        int fromColumn = 0;
+        int toColumn = COLUMNS - 1;
+        double widest = Math.max(Math.abs(latitude - latitudeDelta), Math.abs(latitude + latitudeDelta));
+        if (widest < 90) {
+            double longitudeDelta = latitudeDelta / Math.cos(Math.toRadians(widest));
+            if (longitudeDelta < 180) {
+                fromColumn = columnOf(longitude - longitudeDelta);
+                toColumn = columnOf(longitude + longitudeDelta);
+                toColumn += toColumn < fromColumn ? COLUMNS : 0;
+            }
+        }
+
+        List<Nearby> nearby = new ArrayList<>();
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                for (Long facilityId : facilitiesByCell.getOrDefault(row * COLUMNS + column % COLUMNS, Set.of())) {
+                    FacilityLocation location = locations.get(facilityId);
+                    if (location == null || !location.hasCoordinates()) {
+                        continue;
+                    }
+                    double distance = distanceKm(latitude, longitude, location.latitude(), location.longitude());
+                    if (distance <= radiusKm) {
+                        nearby.add(new Nearby(facilityId, distance));
+                    }
+                }
+            }
+        }
+        nearby.sort(Comparator.comparingDouble(Nearby::distanceKm).thenComparingLong(Nearby::facilityId));
+        return nearby.size() > limit ? List.copyOf(nearby.subList(0, limit)) : nearby;
+    }
+
+    /**
+     * Facilities whose postcode starts with {@code prefix}, ignoring case and separators, in postcode order.
+     */
+    public List<Long> byPostcodePrefix(String prefix, int limit) {
+        String from = normalize(prefix);
+        if (from.isEmpty()) {
+            return List.of();
+        }
+        List<Long> facilityIds = new ArrayList<>();
+        for (Set<Long> ids : facilitiesByPostcode.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            for (Long facilityId : ids) {
+                facilityIds.add(facilityId);
+                if (facilityIds.size() == limit) {
+                    return facilityIds;
+                }
+            }
+        }
+        return facilityIds;
+    }
+
+    static double distanceKm(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double latitudeDelta = Math.toRadians(toLatitude - fromLatitude);
+        double longitudeDelta = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2) + Math.cos(Math.toRadians(fromLatitude))
+                * Math.cos(Math.toRadians(toLatitude)) * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void removeLocked(Long facilityId) {
+        FacilityLocation previous = locations.remove(facilityId);
+        if (previous == null) {
+            return;
+        }
+        if (previous.hasCoordinates()) {
+            removeFrom(facilitiesByCell, cellOf(previous.latitude(), previous.longitude()), facilityId);
+        }
+        removeFrom(facilitiesByPostcode, normalize(previous.postcode()), facilityId);
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Long>> index, K key, Long facilityId) {
+        Set<Long> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(facilityId);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static int cellOf(double latitude, double longitude) {
+        return Math.min(ROWS - 1, rowOf(latitude)) * COLUMNS + columnOf(longitude);
+    }
+
+    private static int rowOf(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    private static int columnOf(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+    }
+
+    private static String normalize(String postcode) {
+        return postcode == null ? "" : NON_ALPHANUMERIC.matcher(postcode).replaceAll("").toUpperCase(Locale.ROOT);
+    }
+
+    public record Nearby(long facilityId, double distanceKm) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.medicalclinic.index;
+
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.model.projection.PatientSearchTerms;
+import com.example.medicalclinic.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over patient last name, first name, phone number and ID card number.
+ * Terms are lower-cased and stripped of diacritics (phone numbers keep digits only) and kept in a
+ * sorted map, so a prefix lookup is a range scan that stops once {@code limit} patients are found.
+ * Multi-word queries scan the longest word and filter candidates by the remaining words.
+ * Writers are serialised; searches run lock-free against the concurrent maps. The index is built before the web
+ * server starts, so a stale streamed row can never overwrite terms written by a committed edit.
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientSearchIndex implements SmartInitializingSingleton {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]");
+    private static final Pattern NON_DIGIT = Pattern.compile("\\D");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final PatientRepository patientRepository;
+    private final NavigableMap<String, Set<Long>> patientsByTerm = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> termsByPatient = new ConcurrentHashMap<>();
+    private final Lock writeLock = new ReentrantLock();
+
+    @Override
+    @Transactional(readOnly = true)
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            patientsByTerm.clear();
+            termsByPatient.clear();
+        } finally {
+            writeLock.unlock();
+        }
+        try (Stream<PatientSearchTerms> patients = patientRepository.streamSearchTerms()) {
+            patients.forEach(this::index);
+        }
+    }
+
+    public void index(Patient patient) {
+        index(PatientSearchTerms.of(patient));
+    }
+
+    public void index(PatientSearchTerms patient) {
+        if (patient.id() == null) {
+            return;
+        }
+        List<String> terms = termsOf(patient);
+        writeLock.lock();
+        try {
+            List<String> previous = termsByPatient.put(patient.id(), terms);
+            if (previous != null) {
+                previous.stream()
+                        .filter(term -> !terms.contains(term))
+                        .forEach(term -> removeTerm(term, patient.id()));
+            }
+            terms.forEach(term -> patientsByTerm.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(patient.id()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long patientId) {
+        if (patientId == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Optional.ofNullable(termsByPatient.remove(patientId))
+                    .ifPresent(terms -> terms.forEach(term -> removeTerm(term, patientId)));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<Long> search(String query, int limit) {
+        List<String> words = WHITESPACE.splitAsStream(Optional.ofNullable(query).orElse("").trim())
+                .map(PatientSearchIndex::normalize)
+                .filter(word -> !word.isEmpty())
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toList();
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        String first = words.get(0);
+        List<String> rest = words.subList(1, words.size());
+        Set<Long> found = new LinkedHashSet<>();
+        for (Set<Long> patientIds : patientsByTerm.subMap(first, true, first + Character.MAX_VALUE, false).values()) {
+            for (Long patientId : patientIds) {
+                if (matchesAll(patientId, rest) && found.add(patientId) && found.size() >= limit) {
+                    return List.copyOf(found);
+                }
+            }
+        }
+        return List.copyOf(found);
+    }
+
+    private boolean matchesAll(Long patientId, List<String> words) {
+        if (words.isEmpty()) {
+            return true;
+        }
+        List<String> terms = termsByPatient.getOrDefault(patientId, List.of());
+        return words.stream().allMatch(word -> terms.stream().anyMatch(term -> term.startsWith(word)));
+    }
+
+    private void removeTerm(String term, Long patientId) {
+        Set<Long> patientIds = patientsByTerm.get(term);
+        if (patientIds != null && patientIds.remove(patientId) && patientIds.isEmpty()) {
+            patientsByTerm.remove(term);
+        }
+    }
+
+    private static List<String> termsOf(PatientSearchTerms patient) {
+        List<String> terms = new ArrayList<>(4);
+        Stream.of(patient.lastName(), patient.firstName(), patient.idCardNo())
+                .filter(Objects::nonNull)
+                .flatMap(WHITESPACE::splitAsStream)
+                .map(PatientSearchIndex::normalize)
+                .forEach(terms::add);
+        Optional.ofNullable(patient.phoneNumber())
+                .map(phone -> NON_DIGIT.matcher(phone).replaceAll(""))
+                .ifPresent(terms::add);
+        terms.removeIf(String::isEmpty);
+        return terms.stream().distinct().toList();
+    }
+
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("").replace('ł', 'l');
+        return NON_ALPHANUMERIC.matcher(stripped).replaceAll("");
+    }
+}
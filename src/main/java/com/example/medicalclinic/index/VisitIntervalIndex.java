@@ -0,0 +1,84 @@
+package com.example.medicalclinic.index;
+
+import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.repository.VisitRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-doctor in-memory index of upcoming visits, keyed by start time.
+ * Visits of one doctor never overlap, so the only candidate for a conflict is
+ * the visit with the latest start before the requested end - one O(log n) lookup.
+ * A doctor's intervals are loaded lazily from the database on first access, and intervals that ended
+ * before now are dropped on every check and add, so a long-running process only keeps upcoming visits.
+ */
+@Component
+public class VisitIntervalIndex {
+    private final VisitRepository visitRepository;
+    private final boolean enabled;
+    private final Map<Long, NavigableMap<LocalDateTime, LocalDateTime>> doctorIntervals = new ConcurrentHashMap<>();
+
+    public VisitIntervalIndex(VisitRepository visitRepository,
+                              @Value("${medical-clinic.visit-index.enabled:false}") boolean enabled) {
+        this.visitRepository = visitRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isFree(Long doctorId, LocalDateTime startTime, LocalDateTime endTime) {
+        return isFree(pruned(intervalsOf(doctorId)), startTime, endTime);
+    }
+
+    public void add(Long doctorId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (enabled) {
+            pruned(intervalsOf(doctorId)).merge(startTime, endTime, VisitIntervalIndex::later);
+        }
+    }
+
+    private static NavigableMap<LocalDateTime, LocalDateTime> pruned(NavigableMap<LocalDateTime, LocalDateTime> intervals) {
+        LocalDateTime now = LocalDateTime.now();
+        intervals.headMap(now).entrySet().removeIf(interval -> !interval.getValue().isAfter(now));
+        return intervals;
+    }
+
+    private NavigableMap<LocalDateTime, LocalDateTime> intervalsOf(Long doctorId) {
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = doctorIntervals.get(doctorId);
+        if (intervals != null) {
+            return intervals;
+        }
+        // Loaded outside computeIfAbsent: a JDBC call under the map's bin lock would pin virtual threads.
+        NavigableMap<LocalDateTime, LocalDateTime> loaded = load(doctorId);
+        NavigableMap<LocalDateTime, LocalDateTime> existing = doctorIntervals.putIfAbsent(doctorId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private NavigableMap<LocalDateTime, LocalDateTime> load(Long doctorId) {
+        return toIntervals(visitRepository.findByDoctorIdAndEndTimeAfter(doctorId, LocalDateTime.now()));
+    }
+
+    public static NavigableMap<LocalDateTime, LocalDateTime> toIntervals(Collection<Visit> visits) {
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = new ConcurrentSkipListMap<>();
+        visits.forEach(visit -> intervals.merge(visit.getStartTime(), visit.getEndTime(), VisitIntervalIndex::later));
+        return intervals;
+    }
+
+    public static boolean isFree(NavigableMap<LocalDateTime, LocalDateTime> intervals,
+                                 LocalDateTime startTime, LocalDateTime endTime) {
+        Map.Entry<LocalDateTime, LocalDateTime> previous = intervals.lowerEntry(endTime);
+        return previous == null || !previous.getValue().isAfter(startTime);
+    }
+
+    private static LocalDateTime later(LocalDateTime current, LocalDateTime added) {
+        return current.isAfter(added) ? current : added;
+    }
+}
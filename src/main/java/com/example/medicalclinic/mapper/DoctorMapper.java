@@ -1,9 +1,11 @@
 package com.example.medicalclinic.mapper;
 
+import com.example.medicalclinic.index.DoctorFacilityIndex;
 import com.example.medicalclinic.model.CreateDoctorCommand;
 import com.example.medicalclinic.model.entity.Doctor;
 import com.example.medicalclinic.model.dto.DoctorDTO;
 import com.example.medicalclinic.model.entity.Facility;
+import com.example.medicalclinic.model.projection.DoctorView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -15,8 +17,35 @@ public interface DoctorMapper {
 
     @Mapping(target = "facilityIds", source = "facilities", qualifiedByName = "mapFacilityIds")
     DoctorDTO toDTO(Doctor doctor);
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     Doctor toEntity(CreateDoctorCommand doctor);
 
+    default DoctorDTO toDTO(Doctor doctor, DoctorFacilityIndex index) {
+        if (DoctorFacilityIndex.isLoaded(doctor.getFacilities())) {
+            return toDTO(doctor);
+        }
+        return DoctorDTO.builder()
+                .id(doctor.getId())
+                .email(doctor.getEmail())
+                .facilityIds(boxIds(index.facilityIdsOf(doctor.getId())))
+                .version(doctor.getVersion())
+                .updatedAt(doctor.getUpdatedAt())
+                .build();
+    }
+
+    default DoctorDTO toDTO(DoctorView doctor, long[] facilityIds) {
+        return DoctorDTO.builder()
+                .id(doctor.id())
+                .email(doctor.email())
+                .facilityIds(boxIds(facilityIds))
+                .build();
+    }
+
+    static List<Long> boxIds(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+
     @Named("mapFacilityIds")
     static List<Long> mapFacilityIds(Set<Facility> facilities) {
         return Optional.ofNullable(facilities).orElse(Collections.emptySet()).stream()
@@ -1,12 +1,15 @@
 package com.example.medicalclinic.mapper;
 
+import com.example.medicalclinic.index.DoctorFacilityIndex;
 import com.example.medicalclinic.model.dto.FacilityDTO;
 import com.example.medicalclinic.model.entity.Doctor;
 import com.example.medicalclinic.model.entity.Facility;
+import com.example.medicalclinic.model.projection.FacilityView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -18,6 +21,53 @@ public interface FacilityMapper {
     Facility toEntity(FacilityDTO facilityDTO);
     List<FacilityDTO> listToDto(List<Facility> facilities);
 
+    default FacilityDTO toDto(Facility facility, DoctorFacilityIndex index) {
+        if (DoctorFacilityIndex.isLoaded(facility.getDoctors())) {
+            return toDto(facility);
+        }
+        return FacilityDTO.builder()
+                .id(facility.getId())
+                .facilityName(facility.getFacilityName())
+                .city(facility.getCity())
+                .postcode(facility.getPostcode())
+                .street(facility.getStreet())
+                .buildingNumber(facility.getBuildingNumber())
+                .latitude(facility.getLatitude())
+                .longitude(facility.getLongitude())
+                .doctorIds(boxIds(index.doctorIdsOf(facility.getId())))
+                .version(facility.getVersion())
+                .updatedAt(facility.getUpdatedAt())
+                .build();
+    }
+
+    default List<FacilityDTO> listToDto(List<Facility> facilities, DoctorFacilityIndex index) {
+        return facilities.stream()
+                .map(facility -> toDto(facility, index))
+                .toList();
+    }
+
+    default FacilityDTO toDto(FacilityView facility, long[] doctorIds) {
+        return FacilityDTO.builder()
+                .id(facility.id())
+                .facilityName(facility.facilityName())
+                .city(facility.city())
+                .postcode(facility.postcode())
+                .street(facility.street())
+                .buildingNumber(facility.buildingNumber())
+                .latitude(facility.latitude())
+                .longitude(facility.longitude())
+                .doctorIds(boxIds(doctorIds))
+                .build();
+    }
+
+    static Set<Long> boxIds(long[] ids) {
+        Set<Long> boxed = new HashSet<>(ids.length * 2);
+        for (long id : ids) {
+            boxed.add(id);
+        }
+        return boxed;
+    }
+
     @Named("mapDoctorIds")
     static Set<Long> mapDoctorIds(Set<Doctor> doctors) {
         return doctors.stream()
@@ -2,6 +2,7 @@ package com.example.medicalclinic.mapper;
 
 import com.example.medicalclinic.model.entity.Patient;
 import com.example.medicalclinic.model.dto.PatientDTO;
+import com.example.medicalclinic.model.projection.PatientView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -11,6 +12,10 @@ public interface PatientMapper {
 
     @Mapping(source = "patient", target = "fullName", qualifiedByName = "toFullName")
     PatientDTO toDTO (Patient patient);
+    @Mapping(source = "patient", target = "fullName", qualifiedByName = "viewToFullName")
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    PatientDTO toDTO(PatientView patient);
     Patient toEntity(PatientDTO patientDTO);
 
     @Named("toFullName")
@@ -20,4 +25,9 @@ public interface PatientMapper {
         }
         return patient.getFirstName() + " " + patient.getLastName();
     }
+
+    @Named("viewToFullName")
+    default String mapToFullName(PatientView patient) {
+        return patient.firstName() + " " + patient.lastName();
+    }
 }
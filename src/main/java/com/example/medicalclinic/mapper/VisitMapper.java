@@ -1,5 +1,6 @@
 package com.example.medicalclinic.mapper;
 
+import com.example.medicalclinic.index.DoctorFacilityIndex;
 import com.example.medicalclinic.model.dto.DoctorDTO;
 import com.example.medicalclinic.model.dto.VisitDTO;
 import com.example.medicalclinic.model.entity.Doctor;
@@ -17,6 +18,24 @@ public interface VisitMapper {
     @Mapping(target = "doctor", source = "doctor", qualifiedByName = "mapDoctor")
     VisitDTO toDto(Visit visit);
 
+    default VisitDTO toDto(Visit visit, DoctorFacilityIndex index) {
+        Doctor doctor = visit.getDoctor();
+        if (doctor == null || DoctorFacilityIndex.isLoaded(doctor.getFacilities())) {
+            return toDto(visit);
+        }
+        return VisitDTO.builder()
+                .id(visit.getId())
+                .doctor(DoctorDTO.builder()
+                        .id(doctor.getId())
+                        .email(doctor.getEmail())
+                        .facilityIds(DoctorMapper.boxIds(index.facilityIdsOf(doctor.getId())))
+                        .build())
+                .startTime(visit.getStartTime())
+                .endTime(visit.getEndTime())
+                .isAvailable(mapIsAvailable(visit))
+                .build();
+    }
+
     @Named("mapIsAvailable")
     default boolean mapIsAvailable(Visit visit) {
         return visit.getPatient() == null;
@@ -0,0 +1,95 @@
+package com.example.medicalclinic.metrics;
+
+import com.example.medicalclinic.model.projection.UpcomingVisitCounts;
+import com.example.medicalclinic.repository.VisitRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Booking counters and the upcoming free/booked visit gauges. Both gauges read one snapshot that is loaded with a
+ * single count query and reused for {@code upcoming-visits-ttl-millis}, so scrapes do not scan the visit table.
+ * The refresh runs under a {@link ReentrantLock} rather than a monitor, so a virtual thread waiting on the query does
+ * not pin its carrier; while one scrape refreshes, the others keep reading the previous snapshot.
+ */
+@Component
+public class VisitMetrics {
+    public static final String REJECTED_PAST = "past";
+    public static final String REJECTED_OVERLAP = "overlap";
+    public static final String REJECTED_INVALID = "invalid";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter bookedCounter;
+    private final Counter conflictCounter;
+    private final VisitRepository visitRepository;
+    private final long upcomingVisitsTtlNanos;
+    private final Lock refreshLock = new ReentrantLock();
+    private volatile UpcomingVisitsSnapshot upcomingVisits;
+
+    public VisitMetrics(MeterRegistry meterRegistry, VisitRepository visitRepository,
+                        @Value("${medical-clinic.metrics.upcoming-visits-ttl-millis:30000}") long upcomingVisitsTtlMillis) {
+        this.meterRegistry = meterRegistry;
+        this.visitRepository = visitRepository;
+        this.upcomingVisitsTtlNanos = TimeUnit.MILLISECONDS.toNanos(upcomingVisitsTtlMillis);
+        this.bookedCounter = Counter.builder("clinic.visits.bookings")
+                .tag("outcome", "booked")
+                .register(meterRegistry);
+        this.conflictCounter = Counter.builder("clinic.visits.bookings")
+                .tag("outcome", "conflict")
+                .register(meterRegistry);
+        Gauge.builder("clinic.visits.upcoming", this, metrics -> metrics.upcomingVisits().free())
+                .tag("state", "free")
+                .register(meterRegistry);
+        Gauge.builder("clinic.visits.upcoming", this, metrics -> metrics.upcomingVisits().booked())
+                .tag("state", "booked")
+                .register(meterRegistry);
+    }
+
+    public void booked() {
+        bookedCounter.increment();
+    }
+
+    public void bookingConflict() {
+        conflictCounter.increment();
+    }
+
+    public void slotRejected(String reason) {
+        meterRegistry.counter("clinic.visits.slot.rejections", "reason", reason).increment();
+    }
+
+    private UpcomingVisitCounts upcomingVisits() {
+        UpcomingVisitsSnapshot snapshot = upcomingVisits;
+        if (snapshot != null && !snapshot.isOlderThan(upcomingVisitsTtlNanos)) {
+            return snapshot.counts();
+        }
+        if (snapshot != null && !refreshLock.tryLock()) {
+            return snapshot.counts();
+        }
+        if (snapshot == null) {
+            refreshLock.lock();
+        }
+        try {
+            snapshot = upcomingVisits;
+            if (snapshot == null || snapshot.isOlderThan(upcomingVisitsTtlNanos)) {
+                snapshot = new UpcomingVisitsSnapshot(visitRepository.countUpcoming(LocalDateTime.now()), System.nanoTime());
+                upcomingVisits = snapshot;
+            }
+            return snapshot.counts();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private record UpcomingVisitsSnapshot(UpcomingVisitCounts counts, long loadedAt) {
+        private boolean isOlderThan(long ttlNanos) {
+            return System.nanoTime() - loadedAt >= ttlNanos;
+        }
+    }
+}
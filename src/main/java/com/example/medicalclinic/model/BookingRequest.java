@@ -0,0 +1,7 @@
+package com.example.medicalclinic.model;
+
+public record BookingRequest(
+        Long visitId,
+        Long patientId
+) {
+}
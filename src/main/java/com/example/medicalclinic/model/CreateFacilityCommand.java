@@ -11,5 +11,7 @@ public record CreateFacilityCommand(
         String postcode,
         String street,
         String buildingNumber,
+        Double latitude,
+        Double longitude,
         List<CreateDoctorCommand> doctors) {
 }
@@ -0,0 +1,19 @@
+package com.example.medicalclinic.model;
+
+import lombok.Builder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Builder
+public record CreateVisitScheduleCommand(
+        Long doctorId,
+        LocalDate fromDate,
+        LocalDate toDate,
+        Set<DayOfWeek> daysOfWeek,
+        LocalTime workStart,
+        LocalTime workEnd,
+        int slotMinutes) {
+}
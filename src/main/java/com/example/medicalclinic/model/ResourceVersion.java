@@ -0,0 +1,48 @@
+package com.example.medicalclinic.model;
+
+import com.example.medicalclinic.model.projection.VersionStamp;
+import org.springframework.data.domain.Page;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+
+/**
+ * Validators for a conditional GET: a strong ETag and a Last-Modified timestamp in epoch millis
+ * ({@code -1} when unknown), as expected by {@code WebRequest.checkNotModified}.
+ */
+public record ResourceVersion(
+        String eTag,
+        long lastModified
+) {
+    public static ResourceVersion of(Long id, long version, LocalDateTime updatedAt) {
+        return new ResourceVersion("\"" + id + "-" + version + "\"", toEpochMillis(updatedAt));
+    }
+
+    /**
+     * Validators for one page of a listing. The ETag digests the total and every row's id and version, so it changes
+     * when a row on the page changes or rows are added or removed anywhere. There is no Last-Modified: a removed row
+     * leaves no newer timestamp behind.
+     */
+    public static ResourceVersion of(Page<VersionStamp> page) {
+        MessageDigest digest = sha256();
+        digest.update(Long.toString(page.getTotalElements()).getBytes(StandardCharsets.US_ASCII));
+        page.getContent().forEach(stamp -> digest.update((";" + stamp.id() + "-" + stamp.version()).getBytes(StandardCharsets.US_ASCII)));
+        return new ResourceVersion("\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"", -1);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
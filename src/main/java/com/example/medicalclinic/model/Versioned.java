@@ -0,0 +1,11 @@
+package com.example.medicalclinic.model;
+
+/**
+ * A response body together with the validators derived from the same rows, so a conditional GET needs no
+ * separate version query.
+ */
+public record Versioned<T>(
+        T content,
+        ResourceVersion version
+) {
+}
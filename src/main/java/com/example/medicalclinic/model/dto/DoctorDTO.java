@@ -1,7 +1,9 @@
 package com.example.medicalclinic.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Getter
@@ -13,4 +15,10 @@ public class DoctorDTO {
     private Long id;
     private String email;
     private List<Long> facilityIds;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long version;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
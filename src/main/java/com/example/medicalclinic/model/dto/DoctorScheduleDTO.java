@@ -0,0 +1,11 @@
+package com.example.medicalclinic.model.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DoctorScheduleDTO(
+        Long doctorId,
+        LocalDate date,
+        List<ScheduledVisitDTO> visits
+) {
+}
@@ -1,8 +1,10 @@
 package com.example.medicalclinic.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
+import java.time.LocalDateTime;
 import java.util.Set;
 
 @Getter
@@ -15,5 +17,11 @@ public class FacilityDTO {
     private String postcode;
     private String street;
     private String buildingNumber;
+    private Double latitude;
+    private Double longitude;
     private Set<Long> doctorIds;
+    @JsonIgnore
+    private long version;
+    @JsonIgnore
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,7 @@
+package com.example.medicalclinic.model.dto;
+
+public record NearbyFacilityDTO(
+        FacilityDTO facility,
+        Double distanceKm
+) {
+}
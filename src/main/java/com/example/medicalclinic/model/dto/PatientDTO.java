@@ -1,8 +1,10 @@
 package com.example.medicalclinic.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Getter
 @NoArgsConstructor
@@ -15,4 +17,8 @@ public class PatientDTO {
     private String fullName;
     private String phoneNumber;
     private LocalDate birthday;
+    @JsonIgnore
+    private long version;
+    @JsonIgnore
+    private LocalDateTime updatedAt;
 }
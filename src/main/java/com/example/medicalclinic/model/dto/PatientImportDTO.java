@@ -0,0 +1,10 @@
+package com.example.medicalclinic.model.dto;
+
+import java.util.List;
+
+public record PatientImportDTO(
+        int importedCount,
+        int rejectedCount,
+        List<RejectedRowDTO> rejectedRows
+) {
+}
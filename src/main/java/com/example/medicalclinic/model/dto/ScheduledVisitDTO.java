@@ -0,0 +1,17 @@
+package com.example.medicalclinic.model.dto;
+
+import java.time.LocalDateTime;
+
+public record ScheduledVisitDTO(
+        Long id,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        Long patientId,
+        String patientName
+) {
+    public ScheduledVisitDTO(Long id, LocalDateTime startTime, LocalDateTime endTime,
+                             Long patientId, String patientFirstName, String patientLastName) {
+        this(id, startTime, endTime, patientId,
+                patientId == null ? null : patientFirstName + " " + patientLastName);
+    }
+}
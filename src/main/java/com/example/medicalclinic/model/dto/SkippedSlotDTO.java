@@ -0,0 +1,10 @@
+package com.example.medicalclinic.model.dto;
+
+import java.time.LocalDateTime;
+
+public record SkippedSlotDTO(
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String reason
+) {
+}
@@ -0,0 +1,60 @@
+package com.example.medicalclinic.model.dto;
+
+import com.example.medicalclinic.exception.InvalidRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+public record SliceContentDTO<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+    private static final int MAX_SIZE = 2000;
+    private static final String CURSOR_PREFIX = "id:";
+
+    public static <T, R> SliceContentDTO<R> from(Slice<T> slice, List<R> content) {
+        return new SliceContentDTO<>(content, slice.getSize(), slice.hasNext(), null);
+    }
+
+    public static <T, R> SliceContentDTO<R> fromKeyset(List<T> rows, int size, Function<T, Long> idOf, Function<T, R> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<T> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encodeCursor(idOf.apply(page.get(page.size() - 1))) : null;
+        return new SliceContentDTO<>(page.stream().map(mapper).toList(), size, hasNext, nextCursor);
+    }
+
+    public static Pageable keysetPage(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new InvalidRequestException("Size must be between 1 and " + MAX_SIZE);
+        }
+        return PageRequest.of(0, size + 1, Sort.by("id"));
+    }
+
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor", ex);
+        }
+    }
+}
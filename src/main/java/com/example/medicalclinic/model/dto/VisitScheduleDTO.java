@@ -0,0 +1,10 @@
+package com.example.medicalclinic.model.dto;
+
+import java.util.List;
+
+public record VisitScheduleDTO(
+        int createdCount,
+        int skippedCount,
+        List<SkippedSlotDTO> skippedSlots
+) {
+}
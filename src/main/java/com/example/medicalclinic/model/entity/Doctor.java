@@ -3,7 +3,11 @@ package com.example.medicalclinic.model.entity;
 import com.example.medicalclinic.model.CreateDoctorCommand;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Data
@@ -14,17 +18,25 @@ import java.util.*;
 @Table(name = "DOCTOR")
 public class Doctor {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_seq")
+    @SequenceGenerator(name = "doctor_seq", sequenceName = "DOCTOR_SEQ", allocationSize = 50)
     private Long id;
+    @Column(unique = true)
     private String email;
     private String password;
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor-facilities")
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY)
     @JoinTable(
             name = "doctor_facility",
             joinColumns = @JoinColumn(name = "doctor_id"),
             inverseJoinColumns = @JoinColumn(name = "facility_id")
     )
+    @Builder.Default
     private Set<Facility> facilities = new HashSet<>();
+    @Version
+    private long version;
+    private LocalDateTime updatedAt;
 
     public void updateFrom(String newEmail, String newPassword) {
         Optional.ofNullable(newEmail)
@@ -43,6 +55,12 @@ public class Doctor {
                 .build();
     }
 
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,7 +3,11 @@ package com.example.medicalclinic.model.entity;
 import com.example.medicalclinic.model.CreateFacilityCommand;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Getter
@@ -12,10 +16,13 @@ import java.util.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "facility")
 @Table(name = "FACILITY")
 public class Facility {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "facility_seq")
+    @SequenceGenerator(name = "facility_seq", sequenceName = "FACILITY_SEQ", allocationSize = 50)
     private Long id;
     @Column(unique = true)
     private String facilityName;
@@ -23,9 +30,16 @@ public class Facility {
     private String postcode;
     private String street;
     private String buildingNumber;
+    private Double latitude;
+    private Double longitude;
 
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "facility-doctors")
     @ManyToMany(mappedBy = "facilities", cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY)
     private Set<Doctor> doctors = new HashSet<>();
+    @Version
+    private long version;
+    private LocalDateTime updatedAt;
 
     public void updateFrom(Facility other) {
         Optional.ofNullable(other.getFacilityName()).ifPresent(newEmail -> this.facilityName = newEmail);
@@ -33,6 +47,8 @@ public class Facility {
         Optional.ofNullable(other.getPostcode()).ifPresent(newEmail -> this.postcode = newEmail);
         Optional.ofNullable(other.getStreet()).ifPresent(newEmail -> this.street = newEmail);
         Optional.ofNullable(other.getBuildingNumber()).ifPresent(newEmail -> this.buildingNumber = newEmail);
+        Optional.ofNullable(other.getLatitude()).ifPresent(newLatitude -> this.latitude = newLatitude);
+        Optional.ofNullable(other.getLongitude()).ifPresent(newLongitude -> this.longitude = newLongitude);
     }
 
     public static Facility from(CreateFacilityCommand request) {
@@ -42,10 +58,18 @@ public class Facility {
                 .postcode(request.postcode())
                 .street(request.street())
                 .buildingNumber(request.buildingNumber())
+                .latitude(request.latitude())
+                .longitude(request.longitude())
                 .doctors(new HashSet<>())
                 .build();
     }
 
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Table(name = "PATIENT")
 public class Patient {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+    @SequenceGenerator(name = "patient_seq", sequenceName = "PATIENT_SEQ", allocationSize = 50)
     private Long id;
     @Column(unique = true)
     private String email;
@@ -25,6 +26,9 @@ public class Patient {
     private String lastName;
     private String phoneNumber;
     private LocalDate birthday;
+    @Version
+    private long version;
+    private LocalDateTime updatedAt;
 
     public void updateFrom(Patient other) {
         if (other.getPassword() != null) {
@@ -47,6 +51,12 @@ public class Patient {
         }
     }
 
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
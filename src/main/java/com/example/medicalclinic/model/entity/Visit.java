@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Table(name = "VISIT")
 public class Visit {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "visit_seq")
+    @SequenceGenerator(name = "visit_seq", sequenceName = "VISIT_SEQ", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -26,8 +27,17 @@ public class Visit {
     private Patient patient;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
+    @Version
+    private long version;
+    private LocalDateTime updatedAt;
 
     public boolean hasPatient() {
         return this.patient != null;
     }
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.medicalclinic.model.projection;
+
+public record DoctorView(
+        Long id,
+        String email
+) {
+}
@@ -0,0 +1,21 @@
+package com.example.medicalclinic.model.projection;
+
+import com.example.medicalclinic.model.entity.Facility;
+
+/**
+ * Where a facility is, for the proximity index; coordinates are optional.
+ */
+public record FacilityLocation(
+        Long id,
+        String postcode,
+        Double latitude,
+        Double longitude
+) {
+    public static FacilityLocation of(Facility facility) {
+        return new FacilityLocation(facility.getId(), facility.getPostcode(), facility.getLatitude(), facility.getLongitude());
+    }
+
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.medicalclinic.model.projection;
+
+public record FacilityView(
+        Long id,
+        String facilityName,
+        String city,
+        String postcode,
+        String street,
+        String buildingNumber,
+        Double latitude,
+        Double longitude
+) {
+}
@@ -0,0 +1,21 @@
+package com.example.medicalclinic.model.projection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One row of a many-to-many join table, e.g. a doctor id and one of its facility ids.
+ */
+public record IdPair(
+        Long ownerId,
+        Long linkedId
+) {
+    public static Map<Long, List<Long>> groupByOwner(Collection<IdPair> pairs) {
+        Map<Long, List<Long>> linkedIds = new HashMap<>();
+        pairs.forEach(pair -> linkedIds.computeIfAbsent(pair.ownerId(), ownerId -> new ArrayList<>()).add(pair.linkedId()));
+        return linkedIds;
+    }
+}
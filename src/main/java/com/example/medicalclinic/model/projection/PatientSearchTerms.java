@@ -0,0 +1,19 @@
+package com.example.medicalclinic.model.projection;
+
+import com.example.medicalclinic.model.entity.Patient;
+
+/**
+ * The patient columns the search index is built from.
+ */
+public record PatientSearchTerms(
+        Long id,
+        String firstName,
+        String lastName,
+        String idCardNo,
+        String phoneNumber
+) {
+    public static PatientSearchTerms of(Patient patient) {
+        return new PatientSearchTerms(patient.getId(), patient.getFirstName(), patient.getLastName(),
+                patient.getIdCardNo(), patient.getPhoneNumber());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.medicalclinic.model.projection;
+
+import java.time.LocalDate;
+
+public record PatientView(
+        Long id,
+        String email,
+        String idCardNo,
+        String firstName,
+        String lastName,
+        String phoneNumber,
+        LocalDate birthday
+) {
+}
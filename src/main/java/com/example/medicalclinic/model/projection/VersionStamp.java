@@ -0,0 +1,11 @@
+package com.example.medicalclinic.model.projection;
+
+/**
+ * Version of one row of a listing, summed over every entity its DTO is built from.
+ * Versions only grow, so the sum changes whenever any of them does.
+ */
+public record VersionStamp(
+        Long id,
+        long version
+) {
+}
@@ -0,0 +1,8 @@
+package com.example.medicalclinic.model.projection;
+
+import java.time.LocalDateTime;
+
+public interface VisitStartView {
+    Long getDoctorId();
+    LocalDateTime getStartTime();
+}
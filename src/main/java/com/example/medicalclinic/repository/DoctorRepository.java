@@ -1,12 +1,54 @@
 package com.example.medicalclinic.repository;
 
 import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.projection.DoctorView;
+import com.example.medicalclinic.model.projection.IdPair;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findByEmail(String email);
+    List<Doctor> findAllByEmailIn(Collection<String> emails);
+
+    @Query("SELECT d.email FROM Doctor d WHERE d.email IN :emails")
+    Set<String> findEmailsByEmailIn(@Param("emails") Collection<String> emails);
+
     Page<Doctor> findAll(Pageable pageable);
+    Slice<Doctor> findAllBy(Pageable pageable);
+    Page<DoctorView> findAllProjectedBy(Pageable pageable);
+
+    @Query("SELECT new com.example.medicalclinic.model.projection.IdPair(d.id, f.id) FROM Doctor d JOIN d.facilities f WHERE d.id IN :doctorIds")
+    List<IdPair> findFacilityIds(@Param("doctorIds") Collection<Long> doctorIds);
+    List<Doctor> findByIdGreaterThan(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Doctor d ORDER BY d.id")
+    Stream<Doctor> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.medicalclinic.model.projection.IdPair(d.id, f.id) FROM Doctor d JOIN d.facilities f")
+    Stream<IdPair> streamFacilityLinks();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Doctor d SET d.password = :password, d.version = d.version + 1, d.updatedAt = LOCAL DATETIME "
+            + "WHERE d.id = :id AND d.password = :currentPassword")
+    int replacePassword(@Param("id") Long id, @Param("currentPassword") String currentPassword, @Param("password") String password);
 }
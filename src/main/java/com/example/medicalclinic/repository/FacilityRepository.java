@@ -1,15 +1,42 @@
 package com.example.medicalclinic.repository;
 
 import com.example.medicalclinic.model.entity.Facility;
+import com.example.medicalclinic.model.projection.FacilityLocation;
+import com.example.medicalclinic.model.projection.FacilityView;
+import com.example.medicalclinic.model.projection.IdPair;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FacilityRepository extends JpaRepository<Facility, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query-facility-by-name")
+    })
     Optional<Facility> findByFacilityName(String facilityName);
+    List<Facility> findAllByFacilityNameIn(Collection<String> facilityNames);
     Page<Facility> findAll(Pageable pageable);
+    Slice<Facility> findAllBy(Pageable pageable);
+    Page<FacilityView> findAllProjectedBy(Pageable pageable);
+
+    @Query("SELECT new com.example.medicalclinic.model.projection.IdPair(f.id, d.id) FROM Facility f JOIN f.doctors d WHERE f.id IN :facilityIds")
+    List<IdPair> findDoctorIds(@Param("facilityIds") Collection<Long> facilityIds);
+    List<Facility> findByIdGreaterThan(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.medicalclinic.model.projection.FacilityLocation(f.id, f.postcode, f.latitude, f.longitude) FROM Facility f")
+    Stream<FacilityLocation> streamLocations();
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.medicalclinic.repository;
+
+import com.example.medicalclinic.model.entity.Patient;
+
+import java.util.List;
+
+public interface PatientImportRepository {
+    /**
+     * Persists and flushes the patients, then detaches them. Ids come from the pooled PATIENT_SEQ allocator,
+     * so Hibernate sends the inserts as JDBC batches. Must run in a transaction, which fails as a whole
+     * if any row violates a unique constraint.
+     */
+    void insertPatients(List<Patient> patients);
+}
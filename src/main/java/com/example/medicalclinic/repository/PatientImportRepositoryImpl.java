@@ -0,0 +1,22 @@
+package com.example.medicalclinic.repository;
+
+import com.example.medicalclinic.model.entity.Patient;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PatientImportRepositoryImpl implements PatientImportRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public void insertPatients(List<Patient> patients) {
+        if (patients.isEmpty()) {
+            return;
+        }
+        patients.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -1,14 +1,57 @@
 package com.example.medicalclinic.repository;
 
 import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.model.projection.PatientSearchTerms;
+import com.example.medicalclinic.model.projection.PatientView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+public interface PatientRepository extends JpaRepository<Patient, Long>, PatientImportRepository {
     Optional<Patient> findByEmail(String email);
     Page<Patient> findAll(Pageable pageable);
+    Slice<Patient> findAllBy(Pageable pageable);
+    Page<PatientView> findAllProjectedBy(Pageable pageable);
+    List<Patient> findByIdGreaterThan(Long id, Pageable pageable);
     Optional<Patient> findByIdCardNo(String id);
+
+    @Query("SELECT p.id FROM Patient p WHERE p.id IN :ids")
+    Set<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.email FROM Patient p WHERE p.email IN :emails")
+    Set<String> findEmailsByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT p.idCardNo FROM Patient p WHERE p.idCardNo IN :idCardNos")
+    Set<String> findIdCardNosByIdCardNoIn(@Param("idCardNos") Collection<String> idCardNos);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Patient p ORDER BY p.id")
+    Stream<Patient> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.medicalclinic.model.projection.PatientSearchTerms(p.id, p.firstName, p.lastName, p.idCardNo, p.phoneNumber) FROM Patient p")
+    Stream<PatientSearchTerms> streamSearchTerms();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Patient p SET p.password = :password, p.version = p.version + 1, p.updatedAt = LOCAL DATETIME "
+            + "WHERE p.id = :id AND p.password = :currentPassword")
+    int replacePassword(@Param("id") Long id, @Param("currentPassword") String currentPassword, @Param("password") String password);
 }
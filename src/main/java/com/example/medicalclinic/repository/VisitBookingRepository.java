@@ -0,0 +1,14 @@
+package com.example.medicalclinic.repository;
+
+import com.example.medicalclinic.model.BookingRequest;
+
+import java.util.List;
+
+public interface VisitBookingRepository {
+    /**
+     * Assigns each patient to its visit if the visit is still free, in one JDBC batch.
+     * Returns the update count per booking, in order: 1 if booked, 0 if the visit was taken or is missing.
+     * Drivers that report {@link java.sql.Statement#SUCCESS_NO_INFO} are resolved by reading the visits back.
+     */
+    int[] assignPatients(List<BookingRequest> bookings);
+}
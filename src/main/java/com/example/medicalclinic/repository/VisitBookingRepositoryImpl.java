@@ -0,0 +1,53 @@
+package com.example.medicalclinic.repository;
+
+import com.example.medicalclinic.model.BookingRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@RequiredArgsConstructor
+public class VisitBookingRepositoryImpl implements VisitBookingRepository {
+    private static final String ASSIGN_PATIENT = "UPDATE VISIT SET patient_id = ?, version = version + 1, updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE id = ? AND patient_id IS NULL";
+    private static final String FIND_PATIENTS = "SELECT id, patient_id FROM VISIT WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] assignPatients(List<BookingRequest> bookings) {
+        if (bookings.isEmpty()) {
+            return new int[0];
+        }
+        int[] updateCounts = jdbcTemplate.batchUpdate(ASSIGN_PATIENT, bookings.stream()
+                .map(booking -> new Object[]{booking.patientId(), booking.visitId()})
+                .toList());
+        if (Arrays.stream(updateCounts).anyMatch(count -> count == Statement.SUCCESS_NO_INFO)) {
+            // The driver executed the batch without per-row counts; read the assignments back instead.
+            Map<Long, Long> patientByVisit = findPatients(bookings);
+            for (int i = 0; i < bookings.size(); i++) {
+                if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                    BookingRequest booking = bookings.get(i);
+                    updateCounts[i] = Objects.equals(patientByVisit.get(booking.visitId()), booking.patientId()) ? 1 : 0;
+                }
+            }
+        }
+        return updateCounts;
+    }
+
+    private Map<Long, Long> findPatients(List<BookingRequest> bookings) {
+        Map<Long, Long> patientByVisit = new HashMap<>();
+        jdbcTemplate.query(FIND_PATIENTS.formatted(String.join(", ", Collections.nCopies(bookings.size(), "?"))),
+                rs -> {
+                    patientByVisit.put(rs.getLong(1), rs.getObject(2, Long.class));
+                },
+                bookings.stream().map(BookingRequest::visitId).toArray());
+        return patientByVisit;
+    }
+}
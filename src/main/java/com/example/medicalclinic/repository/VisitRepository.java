@@ -1,12 +1,74 @@
 package com.example.medicalclinic.repository;
 
+import com.example.medicalclinic.model.dto.ScheduledVisitDTO;
+import com.example.medicalclinic.model.entity.Patient;
 import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.model.projection.UpcomingVisitCounts;
+import com.example.medicalclinic.model.projection.VisitStartView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface VisitRepository extends JpaRepository<Visit, Long> {
-    List<Visit> findByDoctorId(Long doctorId);
+public interface VisitRepository extends JpaRepository<Visit, Long>, VisitBookingRepository {
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    Page<Visit> findAll(Pageable pageable);
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    Slice<Visit> findAllBy(Pageable pageable);
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    List<Visit> findByIdGreaterThan(Long id, Pageable pageable);
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    List<Visit> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Visit v ORDER BY v.id")
+    Stream<Visit> streamAll();
+
+    List<Visit> findByDoctorIdAndStartTimeBeforeAndEndTimeAfter(Long doctorId, LocalDateTime endTime, LocalDateTime startTime);
+
+    @Query("SELECT new com.example.medicalclinic.model.projection.UpcomingVisitCounts(COUNT(v) - COUNT(v.patient), COUNT(v.patient)) " +
+            "FROM Visit v WHERE v.startTime > :now")
+    UpcomingVisitCounts countUpcoming(@Param("now") LocalDateTime now);
+
+    List<Visit> findByDoctorIdAndEndTimeAfter(Long doctorId, LocalDateTime time);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT v.doctor.id AS doctorId, v.startTime AS startTime FROM Visit v WHERE v.patient IS NULL AND v.startTime >= :from")
+    Stream<VisitStartView> streamFreeVisitStarts(@Param("from") LocalDateTime from);
+
+    @EntityGraph(attributePaths = "doctor")
+    @Query("SELECT v FROM Visit v WHERE v.doctor.id IN :doctorIds AND v.patient IS NULL " +
+            "AND v.startTime >= :from AND v.startTime < :to ORDER BY v.startTime")
+    List<Visit> findFreeVisits(@Param("doctorIds") Collection<Long> doctorIds,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.example.medicalclinic.model.dto.ScheduledVisitDTO(v.id, v.startTime, v.endTime, p.id, p.firstName, p.lastName) " +
+            "FROM Visit v LEFT JOIN v.patient p " +
+            "WHERE v.doctor.id = :doctorId AND v.startTime >= :from AND v.startTime < :to ORDER BY v.startTime")
+    List<ScheduledVisitDTO> findDoctorSchedule(@Param("doctorId") Long doctorId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Visit v SET v.patient = :patient, v.version = v.version + 1, v.updatedAt = LOCAL DATETIME "
+            + "WHERE v.id = :visitId AND v.patient IS NULL")
+    int assignPatientIfAvailable(@Param("visitId") Long visitId, @Param("patient") Patient patient);
 }
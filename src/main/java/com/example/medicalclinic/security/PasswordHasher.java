@@ -0,0 +1,167 @@
+package com.example.medicalclinic.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt hashing on a bounded pool of platform threads, so at most {@code threads} hashes burn CPU at once
+ * and request threads only wait for the result. A full queue rejects new work instead of piling it up.
+ * Bulk imports hash through {@link #hashAll} on a separate pool of {@code bulk-threads}, which waits for
+ * capacity instead of rejecting, so an import can never take a slot from interactive password writes.
+ * A cost of 0 calibrates the cost at startup to the highest one that still hashes within {@code target-millis}.
+ * Hashes with a lower cost - and legacy plain-text values - report {@link #needsRehash} and are
+ * upgraded by {@link #verify} on the next successful login.
+ */
+@Component
+public class PasswordHasher {
+    static final int MIN_COST = 4;
+    static final int MIN_CALIBRATED_COST = 10;
+    static final int MAX_COST = 16;
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+
+    private final int cost;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor bulkExecutor;
+    private final Semaphore bulkPermits;
+
+    public PasswordHasher(@Value("${medical-clinic.password.cost:0}") int cost,
+                          @Value("${medical-clinic.password.target-millis:250}") long targetMillis,
+                          @Value("${medical-clinic.password.threads:0}") int threads,
+                          @Value("${medical-clinic.password.queue-capacity:1000}") int queueCapacity,
+                          @Value("${medical-clinic.password.bulk-threads:0}") int bulkThreads) {
+        this.cost = cost > 0 ? cost : calibrate(targetMillis);
+        this.encoder = new BCryptPasswordEncoder(this.cost);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("password-hasher-"), (task, pool) -> {
+                    throw new RejectedExecutionException("Password hashing queue is full");
+                });
+        int bulkPoolSize = bulkThreads > 0 ? bulkThreads : Math.max(1, poolSize / 2);
+        this.bulkExecutor = new ThreadPoolExecutor(bulkPoolSize, bulkPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("password-import-"));
+        this.bulkPermits = new Semaphore(bulkPoolSize * 2);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public CompletableFuture<String> hashAsync(String rawPassword) {
+        if (rawPassword == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> encoder.encode(rawPassword), executor);
+    }
+
+    public String hash(String rawPassword) {
+        return hashAsync(rawPassword).join();
+    }
+
+    /**
+     * Hashes a batch on the bulk pool and blocks until every hash is ready. At most twice the bulk pool size
+     * hashes are queued at a time; the caller waits for a free slot rather than being rejected.
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            if (rawPassword == null) {
+                hashes.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            bulkPermits.acquireUninterruptibly();
+            try {
+                hashes.add(CompletableFuture.supplyAsync(() -> encoder.encode(rawPassword), bulkExecutor)
+                        .whenComplete((hash, ex) -> bulkPermits.release()));
+            } catch (RejectedExecutionException ex) {
+                bulkPermits.release();
+                throw ex;
+            }
+        }
+        return hashes.stream().map(CompletableFuture::join).toList();
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (!isHash(storedPassword)) {
+            return CompletableFuture.completedFuture(MessageDigest.isEqual(
+                    rawPassword.getBytes(StandardCharsets.UTF_8), storedPassword.getBytes(StandardCharsets.UTF_8)));
+        }
+        return CompletableFuture.supplyAsync(() -> encoder.matches(rawPassword, storedPassword), executor);
+    }
+
+    /**
+     * Login check. A matching password stored with an outdated cost is rehashed and handed to {@code upgrade};
+     * the upgrade is best effort and never fails the login.
+     */
+    public CompletableFuture<Boolean> verify(String rawPassword, String storedPassword, Consumer<String> upgrade) {
+        return matchesAsync(rawPassword, storedPassword).thenCompose(matches -> {
+            if (!matches || !needsRehash(storedPassword)) {
+                return CompletableFuture.completedFuture(matches);
+            }
+            try {
+                return hashAsync(rawPassword).thenAccept(upgrade).handle((ignored, ex) -> true);
+            } catch (RejectedExecutionException ex) {
+                return CompletableFuture.completedFuture(true);
+            }
+        });
+    }
+
+    public boolean needsRehash(String storedPassword) {
+        return storedPassword != null && (!isHash(storedPassword) || encoder.upgradeEncoding(storedPassword));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        bulkExecutor.shutdown();
+    }
+
+    public static boolean isHash(String storedPassword) {
+        return BCRYPT_HASH.matcher(storedPassword).matches();
+    }
+
+    static int calibrate(long targetMillis) {
+        new BCryptPasswordEncoder(MIN_COST).encode("warm-up");
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(MIN_CALIBRATED_COST).encode("calibration");
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        // Every cost step doubles the work.
+        int cost = MIN_CALIBRATED_COST;
+        while (cost < MAX_COST && millis * 2 <= targetMillis) {
+            cost++;
+            millis *= 2;
+        }
+        return cost;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.config.CacheConfig;
+import com.example.medicalclinic.model.BookingRequest;
+import com.example.medicalclinic.model.dto.VisitDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind path for visit bookings. Concurrent requests are collected by a single flusher thread
+ * into micro-batches of at most {@code max-batch-size} requests or {@code max-delay-millis} of waiting,
+ * and each batch is booked in one transaction by {@link VisitService#bookVisits}.
+ */
+@Component
+public class BookingQueue {
+    private final VisitService visitService;
+    private final Cache doctorSchedules;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingBooking> queue;
+    private volatile Thread flusher;
+
+    public BookingQueue(VisitService visitService,
+                        CacheManager cacheManager,
+                        @Value("${medical-clinic.booking-queue.enabled:false}") boolean enabled,
+                        @Value("${medical-clinic.booking-queue.max-batch-size:200}") int maxBatchSize,
+                        @Value("${medical-clinic.booking-queue.max-delay-millis:5}") long maxDelayMillis,
+                        @Value("${medical-clinic.booking-queue.capacity:10000}") int capacity) {
+        this.visitService = visitService;
+        this.doctorSchedules = cacheManager.getCache(CacheConfig.DOCTOR_SCHEDULES);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<VisitDTO> submit(Long visitId, Long patientId) {
+        PendingBooking booking = new PendingBooking(new BookingRequest(visitId, patientId), new CompletableFuture<>());
+        if (!queue.offer(booking)) {
+            throw new RejectedExecutionException("Booking queue is full");
+        }
+        return booking.result();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled && flusher == null) {
+            flusher = new Thread(this::run, "booking-queue");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread current = flusher;
+        if (current != null) {
+            current.interrupt();
+            current.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void run() {
+        List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                collect(batch);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        queue.drainTo(batch);
+        batch.forEach(booking -> booking.result().completeExceptionally(new RejectedExecutionException("Booking queue is shutting down")));
+    }
+
+    private void collect(List<PendingBooking> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            PendingBooking next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingBooking> batch) {
+        List<CompletableFuture<VisitDTO>> results;
+        try {
+            results = visitService.bookVisits(batch.stream().map(PendingBooking::request).toList());
+        } catch (RuntimeException ex) {
+            batch.forEach(booking -> booking.result().completeExceptionally(ex));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<VisitDTO> caller = batch.get(i).result();
+            results.get(i).whenComplete((visit, ex) -> {
+                if (ex != null) {
+                    caller.completeExceptionally(ex);
+                    return;
+                }
+                doctorSchedules.evict(visit.getDoctor().getId() + ":" + visit.getStartTime().toLocalDate());
+                caller.complete(visit);
+            });
+        }
+    }
+
+    private record PendingBooking(BookingRequest request, CompletableFuture<VisitDTO> result) {
+    }
+}
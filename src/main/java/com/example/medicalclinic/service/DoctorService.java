@@ -1,70 +1,156 @@
 package com.example.medicalclinic.service;
 
+import com.example.medicalclinic.config.CacheConfig;
 import com.example.medicalclinic.exception.FacilityException;
+import com.example.medicalclinic.index.DoctorFacilityIndex;
 import com.example.medicalclinic.model.CreateDoctorCommand;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.SliceContentDTO;
 import com.example.medicalclinic.exception.DoctorException;
 import com.example.medicalclinic.mapper.DoctorMapper;
 import com.example.medicalclinic.model.entity.Doctor;
 import com.example.medicalclinic.model.dto.DoctorDTO;
 import com.example.medicalclinic.model.entity.Facility;
+import com.example.medicalclinic.model.projection.DoctorView;
 import com.example.medicalclinic.repository.DoctorRepository;
 import com.example.medicalclinic.repository.FacilityRepository;
+import com.example.medicalclinic.security.PasswordHasher;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+@Timed(value = "clinic.service", histogram = true)
 @RequiredArgsConstructor
 @Service
 public class DoctorService {
     private final DoctorRepository doctorRepository;
     private final FacilityRepository facilityRepository;
     private final DoctorMapper doctorMapper;
+    private final PasswordHasher passwordHasher;
+    private final ReferenceDataCacheEvictor referenceDataCacheEvictor;
+    private final DoctorFacilityIndex doctorFacilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionExecutor transactionExecutor;
 
+    @Transactional(readOnly = true)
     public PageableContentDTO<DoctorDTO> getAllDoctors(Pageable pageable) {
-        Page<Doctor> doctorPage = doctorRepository.findAll(pageable);
+        Page<DoctorView> doctorPage = doctorRepository.findAllProjectedBy(pageable);
         List<DoctorDTO> doctorDTOS = doctorPage.getContent().stream()
-                .map(doctorMapper::toDTO)
+                .map(doctor -> doctorMapper.toDTO(doctor, doctorFacilityIndex.facilityIdsOf(doctor.id())))
                 .toList();
 
         return PageableContentDTO.from(doctorPage, doctorDTOS);
     }
 
+    @Transactional(readOnly = true)
+    public SliceContentDTO<DoctorDTO> getDoctorsSlice(Pageable pageable) {
+        Slice<Doctor> doctorSlice = doctorRepository.findAllBy(pageable);
+        List<DoctorDTO> doctorDTOS = doctorSlice.getContent().stream()
+                .map(doctor -> doctorMapper.toDTO(doctor, doctorFacilityIndex))
+                .toList();
+
+        return SliceContentDTO.from(doctorSlice, doctorDTOS);
+    }
+
+    @Transactional(readOnly = true)
+    public SliceContentDTO<DoctorDTO> scrollDoctors(String after, int size) {
+        List<Doctor> doctors = doctorRepository.findByIdGreaterThan(SliceContentDTO.decodeCursor(after), SliceContentDTO.keysetPage(size));
+        return SliceContentDTO.fromKeyset(doctors, size, Doctor::getId,
+                doctor -> doctorMapper.toDTO(doctor, doctorFacilityIndex));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.DOCTORS, key = "#email")
+    @Transactional(readOnly = true)
     public DoctorDTO getDoctorByEmail(String email) {
         return doctorMapper.toDTO(doctorRepository.findByEmail(email)
-                .orElseThrow(() -> new DoctorException("Doctor doesnt exist")));
+                .orElseThrow(() -> new DoctorException("Doctor doesnt exist")), doctorFacilityIndex);
     }
 
-    @Transactional
-    public DoctorDTO addDoctor(CreateDoctorCommand doctor) {
-        doctorRepository.findByEmail(doctor.email())
-                .ifPresent(existing -> {
-                    throw new DoctorException("Doctor with email: " + doctor.email() + " already exists");
+    @CacheEvict(cacheNames = CacheConfig.DOCTOR_PAGES, allEntries = true)
+    public CompletableFuture<DoctorDTO> addDoctor(CreateDoctorCommand doctor) {
+        return transactionExecutor.afterwards(passwordHasher.hashAsync(doctor.password()), hash -> {
+            try {
+                return transactionTemplate.execute(status -> {
+                    doctorRepository.findByEmail(doctor.email())
+                            .ifPresent(existing -> {
+                                throw duplicateEmail(doctor.email());
+                            });
+                    Doctor entity = doctorMapper.toEntity(doctor);
+                    entity.setPassword(hash);
+                    return doctorMapper.toDTO(doctorRepository.save(entity));
                 });
-        return doctorMapper.toDTO(doctorRepository.save(doctorMapper.toEntity(doctor)));
+            } catch (DataIntegrityViolationException ex) {
+                throw duplicateEmail(doctor.email());
+            }
+        });
     }
 
+    public CompletableFuture<Boolean> verifyPassword(String email, String password) {
+        Doctor doctor = doctorRepository.findByEmail(email)
+                .orElseThrow(() -> new DoctorException("Doctor doesnt exist"));
+        String storedPassword = doctor.getPassword();
+        return passwordHasher.verify(password, storedPassword,
+                hash -> doctorRepository.replacePassword(doctor.getId(), storedPassword, hash));
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, key = "#email"),
+            @CacheEvict(cacheNames = CacheConfig.FACILITIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.DOCTOR_PAGES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.FACILITY_PAGES, allEntries = true)
+    })
     @Transactional
     public void removeDoctorByEmail(String email) {
         Doctor doctor = doctorRepository.findByEmail(email)
                 .orElseThrow(() -> new DoctorException("Doctor doesnt exist"));
+        doctor.getFacilities().forEach(Facility::touch);
+        List<Long> facilityIds = doctor.getFacilities().stream()
+                .map(Facility::getId)
+                .toList();
         doctorRepository.delete(doctor);
+        referenceDataCacheEvictor.evictFacilityDoctors(facilityIds);
+        TransactionCallbacks.afterCommit(() -> doctorFacilityIndex.removeDoctor(doctor.getId()));
     }
 
-    public DoctorDTO editDoctorByEmail(String email, CreateDoctorCommand command) {
-        return doctorRepository.findByEmail(email)
-                .map(doctor -> {
-                    doctor.updateFrom(command.email(), command.password());
-                    return doctorMapper.toDTO(doctorRepository.save(doctor));
-                })
-                .orElseThrow(() -> new DoctorException("Doctor doesnt exist"));
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, key = "#email"),
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, key = "#command.email()", condition = "#command.email() != null"),
+            @CacheEvict(cacheNames = CacheConfig.DOCTOR_PAGES, allEntries = true)
+    })
+    public CompletableFuture<DoctorDTO> editDoctorByEmail(String email, CreateDoctorCommand command) {
+        return transactionExecutor.afterwards(passwordHasher.hashAsync(command.password()), hash -> {
+            try {
+                return transactionTemplate.execute(status -> doctorRepository.findByEmail(email)
+                        .map(doctor -> {
+                            doctor.updateFrom(command.email(), hash);
+                            return doctorMapper.toDTO(doctorRepository.save(doctor), doctorFacilityIndex);
+                        })
+                        .orElseThrow(() -> new DoctorException("Doctor doesnt exist")));
+            } catch (DataIntegrityViolationException ex) {
+                throw duplicateEmail(command.email());
+            }
+        });
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.FACILITIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.DOCTOR_PAGES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.FACILITY_PAGES, allEntries = true)
+    })
     @Transactional
     public DoctorDTO assignDoctorToFacility(Long doctorId, Long facilityId) {
         Doctor doctor = doctorRepository.findById(doctorId)
@@ -72,9 +158,18 @@ public class DoctorService {
         Facility facility = facilityRepository.findById(facilityId)
                 .orElseThrow(() -> new FacilityException("Facility doesnt exist"));
         doctor.getFacilities().add(facility);
-        return doctorMapper.toDTO(doctorRepository.save(doctor));
+        facility.touch();
+        referenceDataCacheEvictor.evictFacilityDoctors(List.of(facilityId));
+        TransactionCallbacks.afterCommit(() -> doctorFacilityIndex.link(doctorId, facilityId));
+        return doctorMapper.toDTO(doctorRepository.save(doctor), doctorFacilityIndex);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.FACILITIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.DOCTOR_PAGES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.FACILITY_PAGES, allEntries = true)
+    })
     @Transactional
     public void removeFacilityFromDoctor(Long doctorId, Long facilityId) {
         Doctor doctor = doctorRepository.findById(doctorId)
@@ -83,6 +178,13 @@ public class DoctorService {
                 .orElseThrow(() -> new FacilityException("Facility doesnt exist"));
 
         doctor.getFacilities().remove(facility);
+        facility.touch();
+        referenceDataCacheEvictor.evictFacilityDoctors(List.of(facilityId));
+        TransactionCallbacks.afterCommit(() -> doctorFacilityIndex.unlink(doctorId, facilityId));
         doctorRepository.save(doctor);
     }
+
+    private static DoctorException duplicateEmail(String email) {
+        return new DoctorException("Doctor with email: " + email + " already exists");
+    }
 }
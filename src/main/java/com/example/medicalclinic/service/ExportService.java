@@ -0,0 +1,79 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.index.DoctorFacilityIndex;
+import com.example.medicalclinic.mapper.DoctorMapper;
+import com.example.medicalclinic.mapper.PatientMapper;
+import com.example.medicalclinic.mapper.VisitMapper;
+import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.repository.DoctorRepository;
+import com.example.medicalclinic.repository.PatientRepository;
+import com.example.medicalclinic.repository.VisitRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+@Service
+public class ExportService {
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final VisitRepository visitRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final VisitMapper visitMapper;
+    private final DoctorMapper doctorMapper;
+    private final PatientMapper patientMapper;
+    private final DoctorFacilityIndex doctorFacilityIndex;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public void exportVisits(OutputStream outputStream) throws IOException {
+        try (Stream<Visit> visits = visitRepository.streamAll()) {
+            writeNdjson(visits, visit -> visitMapper.toDto(visit, doctorFacilityIndex), outputStream);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportDoctors(OutputStream outputStream) throws IOException {
+        try (Stream<Doctor> doctors = doctorRepository.streamAll()) {
+            writeNdjson(doctors, doctor -> doctorMapper.toDTO(doctor, doctorFacilityIndex), outputStream);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportPatients(OutputStream outputStream) throws IOException {
+        try (Stream<Patient> patients = patientRepository.streamAll()) {
+            writeNdjson(patients, patientMapper::toDTO, outputStream);
+        }
+    }
+
+    private <T, R> void writeNdjson(Stream<T> rows, Function<T, R> mapper, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        Iterator<T> iterator = rows.iterator();
+        int written = 0;
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            writer.writeValue(outputStream, mapper.apply(row));
+            outputStream.write('\n');
+            entityManager.detach(row);
+            if (++written % CLEAR_INTERVAL == 0) {
+                outputStream.flush();
+                entityManager.clear();
+            }
+        }
+        outputStream.flush();
+    }
+}
@@ -1,88 +1,295 @@
 package com.example.medicalclinic.service;
 
+import com.example.medicalclinic.config.CacheConfig;
 import com.example.medicalclinic.exception.DoctorException;
 import com.example.medicalclinic.exception.FacilityException;
+import com.example.medicalclinic.exception.InvalidRequestException;
+import com.example.medicalclinic.index.DoctorFacilityIndex;
+import com.example.medicalclinic.index.FacilityGeoIndex;
 import com.example.medicalclinic.model.CreateDoctorCommand;
 import com.example.medicalclinic.model.dto.FacilityDTO;
+import com.example.medicalclinic.model.dto.NearbyFacilityDTO;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.SliceContentDTO;
 import com.example.medicalclinic.mapper.FacilityMapper;
 import com.example.medicalclinic.model.entity.Doctor;
 import com.example.medicalclinic.model.entity.Facility;
 import com.example.medicalclinic.model.CreateFacilityCommand;
+import com.example.medicalclinic.model.projection.FacilityLocation;
+import com.example.medicalclinic.model.projection.FacilityView;
+import com.example.medicalclinic.model.projection.IdPair;
 import com.example.medicalclinic.repository.DoctorRepository;
 import com.example.medicalclinic.repository.FacilityRepository;
+import com.example.medicalclinic.security.PasswordHasher;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Timed(value = "clinic.service", histogram = true)
 @RequiredArgsConstructor
 @Service
 public class FacilityService {
+    private static final int IMPORT_CHUNK_SIZE = 50;
+    private static final double MAX_RADIUS_KM = 500;
+    private static final int MAX_NEARBY = 100;
+
     private final FacilityRepository facilityRepository;
     private final DoctorRepository doctorRepository;
     private final FacilityMapper facilityMapper;
+    private final EntityManager entityManager;
+    private final PasswordHasher passwordHasher;
+    private final ReferenceDataCacheEvictor referenceDataCacheEvictor;
+    private final DoctorFacilityIndex doctorFacilityIndex;
+    private final FacilityGeoIndex facilityGeoIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionExecutor transactionExecutor;
 
+    @Transactional(readOnly = true)
     public PageableContentDTO<FacilityDTO> getAllFacilities(Pageable pageable) {
-        Page<Facility> facilityPage = facilityRepository.findAll(pageable);
+        Page<FacilityView> facilityPage = facilityRepository.findAllProjectedBy(pageable);
         List<FacilityDTO> facilityDTOS = facilityPage.getContent().stream()
-                .map(facilityMapper::toDto)
+                .map(facility -> facilityMapper.toDto(facility, doctorFacilityIndex.doctorIdsOf(facility.id())))
                 .toList();
 
         return PageableContentDTO.from(facilityPage, facilityDTOS);
     }
 
+    @Transactional(readOnly = true)
+    public SliceContentDTO<FacilityDTO> getFacilitiesSlice(Pageable pageable) {
+        Slice<Facility> facilitySlice = facilityRepository.findAllBy(pageable);
+        List<FacilityDTO> facilityDTOS = facilitySlice.getContent().stream()
+                .map(facility -> facilityMapper.toDto(facility, doctorFacilityIndex))
+                .toList();
+
+        return SliceContentDTO.from(facilitySlice, facilityDTOS);
+    }
+
+    @Transactional(readOnly = true)
+    public SliceContentDTO<FacilityDTO> scrollFacilities(String after, int size) {
+        List<Facility> facilities = facilityRepository.findByIdGreaterThan(SliceContentDTO.decodeCursor(after), SliceContentDTO.keysetPage(size));
+        return SliceContentDTO.fromKeyset(facilities, size, Facility::getId,
+                facility -> facilityMapper.toDto(facility, doctorFacilityIndex));
+    }
+
+    @Transactional(readOnly = true)
+    public List<NearbyFacilityDTO> findNearby(Double latitude, Double longitude, double radiusKm, String postcode, int limit) {
+        if (limit < 1 || limit > MAX_NEARBY) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_NEARBY);
+        }
+        if (latitude == null || longitude == null) {
+            if (postcode == null || postcode.isBlank()) {
+                throw new InvalidRequestException("Either lat and lon or postcode is required");
+            }
+            return byPostcode(postcode, limit);
+        }
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new InvalidRequestException("Coordinates out of range");
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            throw new InvalidRequestException("Radius must be greater than 0 and at most " + MAX_RADIUS_KM + " km");
+        }
+
+        List<FacilityGeoIndex.Nearby> nearby = facilityGeoIndex.near(latitude, longitude, radiusKm, limit);
+        if (nearby.isEmpty() && postcode != null && !postcode.isBlank()) {
+            return byPostcode(postcode, limit);
+        }
+        Map<Long, Facility> facilities = loadById(nearby.stream().map(FacilityGeoIndex.Nearby::facilityId).toList());
+        return nearby.stream()
+                .filter(facility -> facilities.containsKey(facility.facilityId()))
+                .map(facility -> new NearbyFacilityDTO(
+                        facilityMapper.toDto(facilities.get(facility.facilityId()), doctorFacilityIndex), facility.distanceKm()))
+                .toList();
+    }
+
+    private List<NearbyFacilityDTO> byPostcode(String postcode, int limit) {
+        List<Long> facilityIds = facilityGeoIndex.byPostcodePrefix(postcode, limit);
+        Map<Long, Facility> facilities = loadById(facilityIds);
+        return facilityIds.stream()
+                .filter(facilities::containsKey)
+                .map(facilityId -> new NearbyFacilityDTO(facilityMapper.toDto(facilities.get(facilityId), doctorFacilityIndex), null))
+                .toList();
+    }
+
+    private Map<Long, Facility> loadById(List<Long> facilityIds) {
+        return facilityIds.isEmpty() ? Map.of() : facilityRepository.findAllById(facilityIds).stream()
+                .collect(Collectors.toMap(Facility::getId, Function.identity()));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.FACILITIES, key = "#facilityName")
+    @Transactional(readOnly = true)
     public FacilityDTO getFacilityByName(String facilityName) {
         return facilityMapper.toDto(facilityRepository.findByFacilityName(facilityName)
-                .orElseThrow(() -> new FacilityException("Facility doesnt exist")));
+                .orElseThrow(() -> new FacilityException("Facility doesnt exist")), doctorFacilityIndex);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.FACILITIES, key = "#facilityName"),
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.DOCTOR_PAGES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.FACILITY_PAGES, allEntries = true)
+    })
+    @Transactional
     public void removeFacilityByName(String facilityName) {
         Facility facility = facilityRepository.findByFacilityName(facilityName)
                 .orElseThrow(() -> new FacilityException("Facility doesnt exist"));
+        facility.getDoctors().forEach(Doctor::touch);
+        List<Long> doctorIds = facility.getDoctors().stream()
+                .map(Doctor::getId)
+                .toList();
         facilityRepository.delete(facility);
+        referenceDataCacheEvictor.evictDoctorFacilities(doctorIds);
+        TransactionCallbacks.afterCommit(() -> {
+            doctorFacilityIndex.removeFacility(facility.getId());
+            facilityGeoIndex.remove(facility.getId());
+        });
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.FACILITIES, key = "#facilityName"),
+            @CacheEvict(cacheNames = CacheConfig.FACILITIES, key = "#updatedFacility.facilityName", condition = "#updatedFacility.facilityName != null"),
+            @CacheEvict(cacheNames = CacheConfig.FACILITY_PAGES, allEntries = true)
+    })
     public FacilityDTO updateByName(String facilityName, Facility updatedFacility) {
         Facility existingFacility = facilityRepository.findByFacilityName(facilityName)
                 .orElseThrow(() -> new FacilityException("Facility doesnt exist"));
         existingFacility.updateFrom(updatedFacility);
-        return facilityMapper.toDto(facilityRepository.save(existingFacility));
+        Facility savedFacility = facilityRepository.save(existingFacility);
+        FacilityLocation location = FacilityLocation.of(savedFacility);
+        TransactionCallbacks.afterCommit(() -> facilityGeoIndex.index(location));
+        return facilityMapper.toDto(savedFacility, doctorFacilityIndex);
     }
 
-    @Transactional
-    public List<FacilityDTO> saveFacilitiesWithDoctors(List<CreateFacilityCommand> requests) {
-        List<Facility> facilities = new ArrayList<>();
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DOCTORS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.FACILITIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.DOCTOR_PAGES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.FACILITY_PAGES, allEntries = true)
+    })
+    public CompletableFuture<List<FacilityDTO>> saveFacilitiesWithDoctors(List<CreateFacilityCommand> requests) {
+        return transactionExecutor.execute(() -> {
+            Map<String, String> hashes = hashNewDoctorPasswords(requests);
+            return transactionTemplate.execute(status -> {
+                List<FacilityDTO> savedFacilities = new ArrayList<>();
+                for (int from = 0; from < requests.size(); from += IMPORT_CHUNK_SIZE) {
+                    List<CreateFacilityCommand> chunk = requests.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, requests.size()));
+                    savedFacilities.addAll(saveFacilitiesChunk(chunk, hashes));
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+                return savedFacilities;
+            });
+        });
+    }
 
-        requests.forEach(request -> {
-            Facility facility = prepareFacility(request);
-            assignDoctorsToFacility(facility, request.doctors());
-            facilities.add(facility);
+    private List<FacilityDTO> saveFacilitiesChunk(List<CreateFacilityCommand> requests, Map<String, String> hashes) {
+        Map<String, Facility> facilities = prepareFacilities(requests);
+        Map<String, Doctor> doctors = prepareDoctors(requests, hashes);
+
+        requests.forEach(request -> assignDoctorsToFacility(facilities.get(request.facilityName()), request.doctors(), doctors));
+        referenceDataCacheEvictor.evictFacilityDoctors(facilities.values().stream().map(Facility::getId).toList());
+
+        List<Facility> savedFacilities = facilityRepository.saveAll(facilities.values());
+        List<IdPair> links = savedFacilities.stream()
+                .filter(facility -> facility.getId() != null)
+                .flatMap(facility -> facility.getDoctors().stream()
+                        .filter(doctor -> doctor.getId() != null)
+                        .map(doctor -> new IdPair(doctor.getId(), facility.getId())))
+                .toList();
+        List<FacilityLocation> locations = savedFacilities.stream().map(FacilityLocation::of).toList();
+        TransactionCallbacks.afterCommit(() -> {
+            links.forEach(link -> doctorFacilityIndex.link(link.ownerId(), link.linkedId()));
+            locations.forEach(facilityGeoIndex::index);
         });
+        return facilityMapper.listToDto(savedFacilities, doctorFacilityIndex);
+    }
 
-        return facilityMapper.listToDto(facilityRepository.saveAll(facilities));
+    private Map<String, Facility> prepareFacilities(List<CreateFacilityCommand> requests) {
+        Set<String> facilityNames = requests.stream()
+                .map(CreateFacilityCommand::facilityName)
+                .collect(Collectors.toSet());
+        Map<String, Facility> existingFacilities = facilityRepository.findAllByFacilityNameIn(facilityNames).stream()
+                .collect(Collectors.toMap(Facility::getFacilityName, Function.identity()));
+
+        Map<String, Facility> facilities = new LinkedHashMap<>();
+        requests.forEach(request -> facilities.computeIfAbsent(request.facilityName(),
+                facilityName -> Optional.ofNullable(existingFacilities.get(facilityName))
+                        .orElseGet(() -> Facility.from(request))));
+        return facilities;
+    }
+
+    /**
+     * Hashes the passwords of the requested doctors that do not exist yet on the bulk hasher pool, one lookup
+     * and one batch per chunk, so the import transaction only starts once every hash is ready.
+     */
+    private Map<String, String> hashNewDoctorPasswords(List<CreateFacilityCommand> requests) {
+        List<CreateDoctorCommand> doctorRequests = new ArrayList<>(doctorRequests(requests).values());
+        Map<String, String> hashes = new HashMap<>();
+        for (int from = 0; from < doctorRequests.size(); from += IMPORT_CHUNK_SIZE) {
+            List<CreateDoctorCommand> chunk = doctorRequests.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, doctorRequests.size()));
+            Set<String> existingEmails = doctorRepository.findEmailsByEmailIn(chunk.stream().map(CreateDoctorCommand::email).toList());
+            List<CreateDoctorCommand> newDoctors = chunk.stream()
+                    .filter(doctorRequest -> !existingEmails.contains(doctorRequest.email()))
+                    .toList();
+            List<String> hashed = passwordHasher.hashAll(newDoctors.stream().map(CreateDoctorCommand::password).toList());
+            for (int i = 0; i < newDoctors.size(); i++) {
+                hashes.put(newDoctors.get(i).email(), hashed.get(i));
+            }
+        }
+        return hashes;
     }
 
-    private Facility prepareFacility(CreateFacilityCommand request) {
-        return facilityRepository.findByFacilityName(request.facilityName())
-                .orElseGet(() -> Facility.from(request));
+    private Map<String, Doctor> prepareDoctors(List<CreateFacilityCommand> requests, Map<String, String> hashes) {
+        Map<String, CreateDoctorCommand> doctorRequests = doctorRequests(requests);
+        if (doctorRequests.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<String, Doctor> doctors = doctorRepository.findAllByEmailIn(doctorRequests.keySet()).stream()
+                .collect(Collectors.toMap(Doctor::getEmail, Function.identity(), (first, second) -> first, HashMap::new));
+        doctorRequests.values().stream()
+                .filter(doctorRequest -> !doctors.containsKey(doctorRequest.email()))
+                .forEach(doctorRequest -> {
+                    if (!hashes.containsKey(doctorRequest.email())) {
+                        throw new DoctorException("Doctor with email: " + doctorRequest.email() + " was removed during the import");
+                    }
+                    Doctor doctor = Doctor.from(doctorRequest);
+                    doctor.setPassword(hashes.get(doctorRequest.email()));
+                    doctors.put(doctor.getEmail(), doctor);
+                });
+        return doctors;
     }
 
-    private void assignDoctorsToFacility(Facility facility, List<CreateDoctorCommand> doctorRequests) {
-        Set<Doctor> doctors = new HashSet<>();
+    private static Map<String, CreateDoctorCommand> doctorRequests(List<CreateFacilityCommand> requests) {
+        Map<String, CreateDoctorCommand> doctorRequests = new LinkedHashMap<>();
+        requests.stream()
+                .map(CreateFacilityCommand::doctors)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .forEach(doctorRequest -> doctorRequests.putIfAbsent(doctorRequest.email(), doctorRequest));
+        return doctorRequests;
+    }
 
+    private void assignDoctorsToFacility(Facility facility, List<CreateDoctorCommand> doctorRequests, Map<String, Doctor> doctors) {
         Optional.ofNullable(doctorRequests)
                 .orElseGet(Collections::emptyList)
                 .forEach(doctorRequest -> {
-                    Doctor doctor = doctorRepository.findByEmail(doctorRequest.email())
-                            .orElseGet(() -> Doctor.from(doctorRequest));
-                    doctors.add(doctor);
+                    Doctor doctor = doctors.get(doctorRequest.email());
+                    doctor.getFacilities().add(facility);
+                    facility.getDoctors().add(doctor);
                 });
-
-        doctors.forEach(doctor -> doctor.getFacilities().add(facility));
-        facility.getDoctors().addAll(doctors);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,311 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.exception.InvalidRequestException;
+import com.example.medicalclinic.index.PatientSearchIndex;
+import com.example.medicalclinic.model.dto.PatientImportDTO;
+import com.example.medicalclinic.model.dto.RejectedRowDTO;
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.repository.PatientRepository;
+import com.example.medicalclinic.security.PasswordHasher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Streaming bulk registration of patients from CSV (header row, RFC 4180 quoting, one record per line) or NDJSON.
+ * The body is read line by line and processed in chunks: duplicates within the file are caught by hash sets of
+ * the e-mails and ID card numbers seen so far, duplicates against the database by one {@code IN} query per key
+ * and chunk, and accepted rows are hashed on the hasher's bulk pool and persisted with one flush per chunk, which
+ * Hibernate sends as JDBC batches. The bulk pool waits for capacity, so an import slows down under load instead of
+ * starving interactive password writes. Passwords that already are bcrypt hashes are stored as they are.
+ * Rejected rows are reported by line number instead of failing the import.
+ */
+@Timed(value = "clinic.service", histogram = true)
+@Service
+public class PatientImportService {
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("email", "password", "idCardNo", "firstName", "lastName");
+
+    private final PatientRepository patientRepository;
+    private final PatientSearchIndex patientSearchIndex;
+    private final PasswordHasher passwordHasher;
+    private final ObjectReader patientReader;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedRows;
+
+    public PatientImportService(PatientRepository patientRepository,
+                                PatientSearchIndex patientSearchIndex,
+                                PasswordHasher passwordHasher,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${medical-clinic.patient-import.chunk-size:500}") int chunkSize,
+                                @Value("${medical-clinic.patient-import.max-reported-rows:1000}") int maxReportedRows) {
+        this.patientRepository = patientRepository;
+        this.patientSearchIndex = patientSearchIndex;
+        this.passwordHasher = passwordHasher;
+        this.patientReader = objectMapper.readerFor(Patient.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedRows = maxReportedRows;
+    }
+
+    public PatientImportDTO importCsv(InputStream inputStream) {
+        return importRows(inputStream, header -> {
+            List<String> columns = splitCsv(header).stream().map(String::trim).toList();
+            List<String> missing = REQUIRED_COLUMNS.stream()
+                    .filter(column -> !columns.contains(column))
+                    .sorted()
+                    .toList();
+            if (!missing.isEmpty()) {
+                throw new InvalidRequestException("CSV header is missing columns: " + String.join(", ", missing));
+            }
+            return line -> fromCsv(columns, splitCsv(line));
+        }, false);
+    }
+
+    public PatientImportDTO importNdjson(InputStream inputStream) {
+        Function<String, Patient> parser = line -> {
+            try {
+                return patientReader.readValue(line);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+            }
+        };
+        return importRows(inputStream, firstLine -> parser, true);
+    }
+
+    private PatientImportDTO importRows(InputStream inputStream, Function<String, Function<String, Patient>> parserFactory,
+                                        boolean firstLineIsRow) {
+        ImportState state = new ImportState();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String firstLine = reader.readLine();
+            if (firstLine == null) {
+                return state.toDto();
+            }
+            firstLine = firstLine.startsWith("\uFEFF") ? firstLine.substring(1) : firstLine;
+            Function<String, Patient> parser = parserFactory.apply(firstLine);
+            long lineNumber = 1;
+            if (firstLineIsRow) {
+                accept(state, lineNumber, firstLine, parser);
+            }
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                accept(state, ++lineNumber, line, parser);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        flush(state);
+        return state.toDto();
+    }
+
+    private void accept(ImportState state, long lineNumber, String line, Function<String, Patient> parser) {
+        if (line.isBlank()) {
+            return;
+        }
+        Patient patient;
+        try {
+            patient = parser.apply(line);
+            validate(patient);
+        } catch (IllegalArgumentException ex) {
+            state.reject(lineNumber, ex.getMessage());
+            return;
+        }
+        if (!state.seenEmails.add(patient.getEmail())) {
+            state.reject(lineNumber, "Duplicate email in file: " + patient.getEmail());
+            return;
+        }
+        if (!state.seenIdCardNos.add(patient.getIdCardNo())) {
+            state.reject(lineNumber, "Duplicate IdCardNo in file: " + patient.getIdCardNo());
+            return;
+        }
+        state.chunk.add(new PendingRow(lineNumber, patient));
+        if (state.chunk.size() >= chunkSize) {
+            flush(state);
+        }
+    }
+
+    private void flush(ImportState state) {
+        if (state.chunk.isEmpty()) {
+            return;
+        }
+        List<PendingRow> rows = rejectExisting(state, state.chunk);
+        state.chunk.clear();
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Patient> plainText = rows.stream()
+                .map(PendingRow::patient)
+                .filter(patient -> !PasswordHasher.isHash(patient.getPassword()))
+                .toList();
+        if (!plainText.isEmpty()) {
+            List<String> hashes = passwordHasher.hashAll(plainText.stream().map(Patient::getPassword).toList());
+            for (int i = 0; i < plainText.size(); i++) {
+                plainText.get(i).setPassword(hashes.get(i));
+            }
+        }
+
+        insert(state, rows).forEach(patientSearchIndex::index);
+    }
+
+    private List<PendingRow> rejectExisting(ImportState state, List<PendingRow> chunk) {
+        Set<String> existingEmails = patientRepository.findEmailsByEmailIn(chunk.stream().map(row -> row.patient().getEmail()).toList());
+        Set<String> existingIdCardNos = patientRepository.findIdCardNosByIdCardNoIn(chunk.stream().map(row -> row.patient().getIdCardNo()).toList());
+        List<PendingRow> accepted = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            if (existingEmails.contains(row.patient().getEmail())) {
+                state.reject(row.line(), "Patient with email: " + row.patient().getEmail() + " already exists");
+            } else if (existingIdCardNos.contains(row.patient().getIdCardNo())) {
+                state.reject(row.line(), "Patient with IdCardNo: " + row.patient().getIdCardNo() + " already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private List<Patient> insert(ImportState state, List<PendingRow> rows) {
+        List<Patient> patients = rows.stream().map(PendingRow::patient).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> patientRepository.insertPatients(patients));
+            state.imported += patients.size();
+            return patients;
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent registration won the race for one of the keys; retry the chunk row by row.
+            List<Patient> inserted = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                row.patient().setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> patientRepository.insertPatients(List.of(row.patient())));
+                    state.imported++;
+                    inserted.add(row.patient());
+                } catch (DataIntegrityViolationException rowEx) {
+                    state.reject(row.line(), "Patient with email: " + row.patient().getEmail() + " or IdCardNo: "
+                            + row.patient().getIdCardNo() + " already exists");
+                }
+            }
+            return inserted;
+        }
+    }
+
+    private static void validate(Patient patient) {
+        if (patient == null) {
+            throw new IllegalArgumentException("Empty record");
+        }
+        patient.setId(null);
+        requireText(patient.getEmail(), "email");
+        requireText(patient.getPassword(), "password");
+        requireText(patient.getIdCardNo(), "idCardNo");
+        requireText(patient.getFirstName(), "firstName");
+        requireText(patient.getLastName(), "lastName");
+    }
+
+    private static void requireText(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + field);
+        }
+    }
+
+    private static Patient fromCsv(List<String> columns, List<String> values) {
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " fields but got " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String value = values.get(i).trim();
+            fields.put(columns.get(i), value.isEmpty() ? null : value);
+        }
+        return Patient.builder()
+                .email(fields.get("email"))
+                .password(fields.get("password"))
+                .idCardNo(fields.get("idCardNo"))
+                .firstName(fields.get("firstName"))
+                .lastName(fields.get("lastName"))
+                .phoneNumber(fields.get("phoneNumber"))
+                .birthday(parseDate(fields.get("birthday")))
+                .build();
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid birthday: " + value);
+        }
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record PendingRow(long line, Patient patient) {
+    }
+
+    private class ImportState {
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Set<String> seenIdCardNos = new HashSet<>();
+        private final List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        private final List<RejectedRowDTO> rejectedRows = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        private void reject(long line, String reason) {
+            rejected++;
+            if (rejectedRows.size() < maxReportedRows) {
+                rejectedRows.add(new RejectedRowDTO(line, reason));
+            }
+        }
+
+        private PatientImportDTO toDto() {
+            rejectedRows.sort(Comparator.comparingLong(RejectedRowDTO::line));
+            return new PatientImportDTO(imported, rejected, rejectedRows);
+        }
+    }
+}
@@ -1,28 +1,54 @@
 package com.example.medicalclinic.service;
 
+import com.example.medicalclinic.config.CacheConfig;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.SliceContentDTO;
+import com.example.medicalclinic.exception.InvalidRequestException;
 import com.example.medicalclinic.exception.PatientException;
+import com.example.medicalclinic.index.PatientSearchIndex;
 import com.example.medicalclinic.mapper.PatientMapper;
 import com.example.medicalclinic.model.entity.Patient;
 import com.example.medicalclinic.model.dto.PatientDTO;
+import com.example.medicalclinic.model.projection.PatientView;
 import com.example.medicalclinic.repository.PatientRepository;
+import com.example.medicalclinic.security.PasswordHasher;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Timed(value = "clinic.service", histogram = true)
 @RequiredArgsConstructor
 @Service
 public class PatientService {
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final PatientRepository patientRepository;
     private final PatientMapper patientMapper;
+    private final PatientSearchIndex patientSearchIndex;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionExecutor transactionExecutor;
 
+    @Transactional(readOnly = true)
     public PageableContentDTO<PatientDTO> getAllPatients(Pageable pageable) {
-        Page<Patient> patientPage = patientRepository.findAll(pageable);
+        Page<PatientView> patientPage = patientRepository.findAllProjectedBy(pageable);
         List<PatientDTO> patientDTOS = patientPage.getContent().stream()
                 .map(patientMapper::toDTO)
                 .toList();
@@ -30,42 +56,118 @@ public class PatientService {
         return PageableContentDTO.from(patientPage, patientDTOS);
     }
 
+    @Transactional(readOnly = true)
+    public SliceContentDTO<PatientDTO> getPatientsSlice(Pageable pageable) {
+        Slice<Patient> patientSlice = patientRepository.findAllBy(pageable);
+        List<PatientDTO> patientDTOS = patientSlice.getContent().stream()
+                .map(patientMapper::toDTO)
+                .toList();
+
+        return SliceContentDTO.from(patientSlice, patientDTOS);
+    }
+
+    @Transactional(readOnly = true)
+    public SliceContentDTO<PatientDTO> scrollPatients(String after, int size) {
+        List<Patient> patients = patientRepository.findByIdGreaterThan(SliceContentDTO.decodeCursor(after), SliceContentDTO.keysetPage(size));
+        return SliceContentDTO.fromKeyset(patients, size, Patient::getId, patientMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PatientDTO> searchPatients(String query, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        List<Long> patientIds = patientSearchIndex.search(query, limit);
+        if (patientIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Patient> patients = patientRepository.findAllById(patientIds).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        return patientIds.stream()
+                .map(patients::get)
+                .filter(Objects::nonNull)
+                .map(patientMapper::toDTO)
+                .toList();
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PATIENTS, key = "#email")
     public PatientDTO getPatientByEmail(String email) {
         return patientMapper.toDTO(patientRepository.findByEmail(email)
                 .orElseThrow(() -> new PatientException("Patient doesnt exist")));
     }
 
-    @Transactional
-    public PatientDTO addPatient(Patient patient) {
-        patientRepository.findByEmail(patient.getEmail())
-                .ifPresent(existing -> { throw new PatientException("Patient with email: " + patient.getEmail() + " already exists"); });
+    public CompletableFuture<PatientDTO> addPatient(Patient patient) {
+        return transactionExecutor.afterwards(passwordHasher.hashAsync(patient.getPassword()), hash -> {
+            try {
+                return transactionTemplate.execute(status -> {
+                    patientRepository.findByEmail(patient.getEmail())
+                            .ifPresent(existing -> { throw new PatientException("Patient with email: " + patient.getEmail() + " already exists"); });
 
-        patientRepository.findByIdCardNo(patient.getIdCardNo())
-                .ifPresent(existing -> { throw new PatientException("Patient with IdCardNo: " + patient.getIdCardNo() + " already exists"); });
+                    patientRepository.findByIdCardNo(patient.getIdCardNo())
+                            .ifPresent(existing -> { throw new PatientException("Patient with IdCardNo: " + patient.getIdCardNo() + " already exists"); });
 
-        return patientMapper.toDTO(patientRepository.save(patient));
+                    patient.setPassword(hash);
+                    Patient savedPatient = patientRepository.save(patient);
+                    TransactionCallbacks.afterCommit(() -> patientSearchIndex.index(savedPatient));
+                    return patientMapper.toDTO(savedPatient);
+                });
+            } catch (DataIntegrityViolationException ex) {
+                throw new PatientException("Patient with email: " + patient.getEmail() + " or IdCardNo: "
+                        + patient.getIdCardNo() + " already exists");
+            }
+        });
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#email")
     public void removePatientByEmail(String email) {
-        patientRepository.delete(patientRepository.findByEmail(email)
-                .orElseThrow(() -> new PatientException("Patient doesnt exist")));
+        Patient patient = patientRepository.findByEmail(email)
+                .orElseThrow(() -> new PatientException("Patient doesnt exist"));
+        patientRepository.delete(patient);
+        TransactionCallbacks.afterCommit(() -> patientSearchIndex.remove(patient.getId()));
     }
 
-    public PatientDTO editPatientByEmail(String email, Patient updatedPatient) {
-        Patient existingPatient = patientRepository.findByEmail(email)
-                .orElseThrow(() -> new PatientException("Patient doesnt exist"));
-        updateEmailIfChanged(existingPatient, updatedPatient);
-        existingPatient.updateFrom(updatedPatient);
-        return patientMapper.toDTO(patientRepository.save(existingPatient));
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#email"),
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#updatedPatient.email", condition = "#updatedPatient.email != null")
+    })
+    public CompletableFuture<PatientDTO> editPatientByEmail(String email, Patient updatedPatient) {
+        return transactionExecutor.afterwards(passwordHasher.hashAsync(updatedPatient.getPassword()), hash -> {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Patient existingPatient = patientRepository.findByEmail(email)
+                            .orElseThrow(() -> new PatientException("Patient doesnt exist"));
+                    updateEmailIfChanged(existingPatient, updatedPatient);
+                    updatedPatient.setPassword(hash);
+                    existingPatient.updateFrom(updatedPatient);
+                    Patient savedPatient = patientRepository.save(existingPatient);
+                    TransactionCallbacks.afterCommit(() -> patientSearchIndex.index(savedPatient));
+                    return patientMapper.toDTO(savedPatient);
+                });
+            } catch (DataIntegrityViolationException ex) {
+                throw new PatientException("Email " + updatedPatient.getEmail() + " is already in use.");
+            }
+        });
     }
 
-    public Patient changePassword(String email, String password) {
-        Patient existingPatient = patientRepository.findByEmail(email)
-                        .orElseThrow(() -> new PatientException("Patient doesnt exist"));
-        existingPatient.setPassword(password);
-        return patientRepository.save(existingPatient);
+    @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#email")
+    public CompletableFuture<PatientDTO> changePassword(String email, String password) {
+        return transactionExecutor.afterwards(passwordHasher.hashAsync(password), hash -> transactionTemplate.execute(status -> {
+            Patient patient = patientRepository.findByEmail(email)
+                    .orElseThrow(() -> new PatientException("Patient doesnt exist"));
+            patient.setPassword(hash);
+            // Flushed so the returned version and updatedAt match the stored row.
+            return patientMapper.toDTO(patientRepository.saveAndFlush(patient));
+        }));
     }
-    
+
+    public CompletableFuture<Boolean> verifyPassword(String email, String password) {
+        Patient patient = patientRepository.findByEmail(email)
+                .orElseThrow(() -> new PatientException("Patient doesnt exist"));
+        String storedPassword = patient.getPassword();
+        return passwordHasher.verify(password, storedPassword,
+                hash -> patientRepository.replacePassword(patient.getId(), storedPassword, hash));
+    }
+
     private void updateEmailIfChanged(Patient existingPatient, Patient updatedPatient) {
         Optional.ofNullable(updatedPatient.getEmail())
                 .filter(newEmail -> !newEmail.equals(existingPatient.getEmail()))
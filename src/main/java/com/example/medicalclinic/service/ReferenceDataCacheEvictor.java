@@ -0,0 +1,45 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Facility;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Evicts second-level cached doctor/facility collections that Hibernate cannot invalidate by itself:
+ * the inverse {@code Facility.doctors} side when only {@code Doctor.facilities} was changed, and the owner
+ * side when a facility disappears underneath it. Eviction runs after commit so readers never re-cache
+ * the pre-commit state.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCacheEvictor {
+    static final String FACILITY_DOCTORS = Facility.class.getName() + ".doctors";
+    static final String DOCTOR_FACILITIES = Doctor.class.getName() + ".facilities";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictFacilityDoctors(Collection<Long> facilityIds) {
+        evictAfterCommit(FACILITY_DOCTORS, facilityIds);
+    }
+
+    public void evictDoctorFacilities(Collection<Long> doctorIds) {
+        evictAfterCommit(DOCTOR_FACILITIES, doctorIds);
+    }
+
+    private void evictAfterCommit(String role, Collection<Long> ownerIds) {
+        List<Long> ids = ownerIds.stream().filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        TransactionCallbacks.afterCommit(() -> ids.forEach(id -> cache.evictCollectionData(role, id)));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.medicalclinic.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the database half of asynchronous writes on virtual threads, so a slow query or lock wait never holds
+ * one of the {@link com.example.medicalclinic.security.PasswordHasher} threads and the write always runs here,
+ * whether or not its hash was already complete. Concurrency is bounded by the connection pool.
+ */
+@Component
+public class TransactionExecutor {
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tx-writer-", 1).factory());
+
+    public <T> CompletableFuture<T> execute(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, executor);
+    }
+
+    public <T, R> CompletableFuture<R> afterwards(CompletableFuture<T> stage, Function<? super T, ? extends R> work) {
+        return stage.thenApplyAsync(work, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,33 +1,79 @@
 package com.example.medicalclinic.service;
 
+import com.example.medicalclinic.config.CacheConfig;
 import com.example.medicalclinic.exception.DoctorException;
+import com.example.medicalclinic.exception.FacilityException;
 import com.example.medicalclinic.exception.PatientException;
+import com.example.medicalclinic.exception.VisitAlreadyBookedException;
 import com.example.medicalclinic.exception.VisitException;
+import com.example.medicalclinic.index.AvailabilityIndex;
+import com.example.medicalclinic.index.VisitIntervalIndex;
 import com.example.medicalclinic.mapper.VisitMapper;
+import com.example.medicalclinic.metrics.VisitMetrics;
+import com.example.medicalclinic.model.BookingRequest;
+import com.example.medicalclinic.model.CreateVisitScheduleCommand;
+import com.example.medicalclinic.model.ResourceVersion;
+import com.example.medicalclinic.model.Versioned;
+import com.example.medicalclinic.model.dto.DoctorScheduleDTO;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.SliceContentDTO;
+import com.example.medicalclinic.model.dto.ScheduledVisitDTO;
+import com.example.medicalclinic.model.dto.SkippedSlotDTO;
 import com.example.medicalclinic.model.dto.VisitDTO;
+import com.example.medicalclinic.model.dto.VisitScheduleDTO;
 import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Facility;
 import com.example.medicalclinic.model.entity.Patient;
 import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.model.projection.VersionStamp;
 import com.example.medicalclinic.repository.DoctorRepository;
+import com.example.medicalclinic.repository.FacilityRepository;
 import com.example.medicalclinic.repository.PatientRepository;
 import com.example.medicalclinic.repository.VisitRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Timed(value = "clinic.service", histogram = true)
 @Service
 @RequiredArgsConstructor
 public class VisitService {
+    private static final int MAX_SCHEDULE_DAYS = 366;
+    private static final int MAX_AVAILABILITY_DAYS = 31;
+
     private final VisitRepository visitRepository;
     private final VisitMapper visitMapper;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
+    private final FacilityRepository facilityRepository;
+    private final VisitIntervalIndex visitIntervalIndex;
+    private final AvailabilityIndex availabilityIndex;
+    private final VisitMetrics visitMetrics;
 
+    @CacheEvict(cacheNames = CacheConfig.DOCTOR_SCHEDULES, key = "#doctorId + ':' + #startTime.toLocalDate()")
     @Transactional
     public VisitDTO createVisit(Long doctorId, LocalDateTime startTime, LocalDateTime endTime) {
         validateTimes(startTime, endTime);
@@ -35,9 +81,8 @@ public class VisitService {
         Doctor doctor = doctorRepository.findById(doctorId)
                 .orElseThrow(() -> new DoctorException("Doctor doesnt exist"));
 
-        List<Visit> conflictingVisits = getConflictingVisits(doctorId, startTime, endTime);
-        if (!conflictingVisits.isEmpty()) {
-            throw new VisitException("Doctor has a visit at this time");
+        if (!isSlotFree(doctorId, startTime, endTime)) {
+            throw rejectSlot(VisitMetrics.REJECTED_OVERLAP, "Doctor has a visit at this time");
         }
 
         Visit visit = Visit.builder()
@@ -47,51 +92,249 @@ public class VisitService {
                 .build();
 
         visitRepository.save(visit);
+        TransactionCallbacks.afterCommit(() -> {
+            visitIntervalIndex.add(doctorId, startTime, endTime);
+            availabilityIndex.markFree(doctorId, startTime);
+        });
         return visitMapper.toDto(visit);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DOCTOR_SCHEDULES, key = "#result.doctor.id + ':' + #result.startTime.toLocalDate()")
     @Transactional
     public VisitDTO bookVisit(Long visitId, Long patientId) {
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new PatientException("Patient doesnt exist"));
+
+        if (visitRepository.assignPatientIfAvailable(visitId, patient) == 0) {
+            if (!visitRepository.existsById(visitId)) {
+                throw new VisitException("Visit doesnt exist");
+            }
+            visitMetrics.bookingConflict();
+            throw new VisitAlreadyBookedException("Visit is already booked");
+        }
+        visitMetrics.booked();
+
         Visit visit = visitRepository.findById(visitId)
                 .orElseThrow(() -> new VisitException("Visit doesnt exist"));
+        TransactionCallbacks.afterCommit(() -> availabilityIndex.markBooked(visit.getDoctor().getId(), visit.getStartTime()));
+        return visitMapper.toDto(visit);
+    }
 
-        if (visit.hasPatient()) {
-            throw new VisitException("Visit is already booked");
+    /**
+     * Books a micro-batch collected by {@link BookingQueue}: patients and visits are resolved with one IN query each
+     * and the conditional updates run as one JDBC batch. Only the first request for a visit within the batch
+     * competes for it. The returned futures, one per request in order, complete after commit.
+     */
+    @Transactional
+    public List<CompletableFuture<VisitDTO>> bookVisits(List<BookingRequest> requests) {
+        Set<Long> patientIds = patientRepository.findIdsByIdIn(requests.stream().map(BookingRequest::patientId).collect(Collectors.toSet()));
+        Set<Long> claimedVisitIds = new HashSet<>();
+        List<BookingRequest> candidates = requests.stream()
+                .filter(request -> patientIds.contains(request.patientId()) && claimedVisitIds.add(request.visitId()))
+                .toList();
+        int[] updateCounts = visitRepository.assignPatients(candidates);
+        Set<BookingRequest> booked = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (updateCounts[i] > 0) {
+                booked.add(candidates.get(i));
+            }
         }
+        Map<Long, Visit> visits = visitRepository.findByIdIn(requests.stream().map(BookingRequest::visitId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Visit::getId, Function.identity()));
 
-        Patient patient = patientRepository.findById(patientId)
-                .orElseThrow(() -> new PatientException("Patient doesnt exist"));;
+        List<CompletableFuture<VisitDTO>> results = new ArrayList<>(requests.size());
+        List<Runnable> completions = new ArrayList<>(requests.size());
+        List<Visit> bookedVisits = new ArrayList<>();
+        for (BookingRequest request : requests) {
+            CompletableFuture<VisitDTO> result = new CompletableFuture<>();
+            results.add(result);
+            Visit visit = visits.get(request.visitId());
+            if (!patientIds.contains(request.patientId())) {
+                completions.add(() -> result.completeExceptionally(new PatientException("Patient doesnt exist")));
+            } else if (visit == null) {
+                completions.add(() -> result.completeExceptionally(new VisitException("Visit doesnt exist")));
+            } else if (!booked.contains(request)) {
+                visitMetrics.bookingConflict();
+                completions.add(() -> result.completeExceptionally(new VisitAlreadyBookedException("Visit is already booked")));
+            } else {
+                visitMetrics.booked();
+                bookedVisits.add(visit);
+                VisitDTO visitDTO = visitMapper.toDto(visit);
+                completions.add(() -> result.complete(visitDTO));
+            }
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            bookedVisits.forEach(visit -> availabilityIndex.markBooked(visit.getDoctor().getId(), visit.getStartTime()));
+            completions.forEach(Runnable::run);
+        });
+        return results;
+    }
 
-        visit.setPatient(patient);
-        visitRepository.save(visit);
-        return visitMapper.toDto(visit);
+    @Cacheable(cacheNames = CacheConfig.DOCTOR_SCHEDULES, key = "#doctorId + ':' + #date")
+    @Transactional(readOnly = true)
+    public DoctorScheduleDTO getDoctorSchedule(Long doctorId, LocalDate date) {
+        List<ScheduledVisitDTO> visits = visitRepository.findDoctorSchedule(doctorId,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        if (visits.isEmpty() && !doctorRepository.existsById(doctorId)) {
+            throw new DoctorException("Doctor doesnt exist");
+        }
+        return new DoctorScheduleDTO(doctorId, date, visits);
     }
 
+    @Transactional(readOnly = true)
+    public List<VisitDTO> findAvailableVisits(String facilityName, LocalDate fromDate, LocalDate toDate) {
+        if (fromDate == null || toDate == null || toDate.isBefore(fromDate)) {
+            throw new VisitException("Search end date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_AVAILABILITY_DAYS) {
+            throw new VisitException("Search can't span more than " + MAX_AVAILABILITY_DAYS + " days");
+        }
+        Facility facility = facilityRepository.findByFacilityName(facilityName)
+                .orElseThrow(() -> new FacilityException("Facility doesnt exist"));
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = fromDate.atStartOfDay().isBefore(now) ? now : fromDate.atStartOfDay();
+        LocalDateTime to = toDate.plusDays(1).atStartOfDay();
+        Set<Long> doctorIds = availabilityIndex.doctorsWithFreeSlots(
+                facility.getDoctors().stream().map(Doctor::getId).toList(), from, to);
+        if (doctorIds.isEmpty()) {
+            return List.of();
+        }
+        return visitRepository.findFreeVisits(doctorIds, from, to).stream()
+                .map(visitMapper::toDto)
+                .toList();
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DOCTOR_SCHEDULES, allEntries = true)
     @Transactional
-    public PageableContentDTO<VisitDTO> getVisits(Pageable pageable) {
-        Page<Visit> visitPage = visitRepository.findAll(pageable);
+    public VisitScheduleDTO createVisitSchedule(CreateVisitScheduleCommand command) {
+        validateSchedule(command);
+
+        Doctor doctor = doctorRepository.findById(command.doctorId())
+                .orElseThrow(() -> new DoctorException("Doctor doesnt exist"));
+
+        NavigableMap<LocalDateTime, LocalDateTime> takenSlots = VisitIntervalIndex.toIntervals(
+                visitRepository.findByDoctorIdAndStartTimeBeforeAndEndTimeAfter(doctor.getId(),
+                        command.toDate().plusDays(1).atStartOfDay(), command.fromDate().atStartOfDay()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Visit> visits = new ArrayList<>();
+        List<SkippedSlotDTO> skippedSlots = new ArrayList<>();
+        for (LocalDate day = command.fromDate(); !day.isAfter(command.toDate()); day = day.plusDays(1)) {
+            if (!command.daysOfWeek().contains(day.getDayOfWeek())) {
+                continue;
+            }
+            LocalDateTime dayEnd = day.atTime(command.workEnd());
+            for (LocalDateTime startTime = day.atTime(command.workStart());
+                 !startTime.plusMinutes(command.slotMinutes()).isAfter(dayEnd);
+                 startTime = startTime.plusMinutes(command.slotMinutes())) {
+                LocalDateTime endTime = startTime.plusMinutes(command.slotMinutes());
+                if (startTime.isBefore(now)) {
+                    visitMetrics.slotRejected(VisitMetrics.REJECTED_PAST);
+                    skippedSlots.add(new SkippedSlotDTO(startTime, endTime, "Can't create visits in the past"));
+                } else if (!VisitIntervalIndex.isFree(takenSlots, startTime, endTime)) {
+                    visitMetrics.slotRejected(VisitMetrics.REJECTED_OVERLAP);
+                    skippedSlots.add(new SkippedSlotDTO(startTime, endTime, "Doctor has a visit at this time"));
+                } else {
+                    visits.add(Visit.builder()
+                            .doctor(doctor)
+                            .startTime(startTime)
+                            .endTime(endTime)
+                            .build());
+                }
+            }
+        }
+
+        visitRepository.saveAll(visits);
+        TransactionCallbacks.afterCommit(() -> visits.forEach(visit -> {
+            visitIntervalIndex.add(doctor.getId(), visit.getStartTime(), visit.getEndTime());
+            availabilityIndex.markFree(doctor.getId(), visit.getStartTime());
+        }));
+        return new VisitScheduleDTO(visits.size(), skippedSlots.size(), skippedSlots);
+    }
+
+    @Transactional(readOnly = true)
+    public Versioned<PageableContentDTO<VisitDTO>> getVisits(Pageable pageable) {
+        Page<Visit> visitPage = visitRepository.findAll(withStableOrder(pageable));
         List<VisitDTO> visits = visitPage.getContent().stream()
                 .map(visitMapper::toDto)
                 .toList();
+        ResourceVersion version = ResourceVersion.of(visitPage.map(visit -> new VersionStamp(visit.getId(),
+                visit.getVersion() + Optional.ofNullable(visit.getDoctor()).map(Doctor::getVersion).orElse(0L))));
+
+        return new Versioned<>(PageableContentDTO.from(visitPage, visits), version);
+    }
+
+    @Transactional(readOnly = true)
+    public SliceContentDTO<VisitDTO> getVisitsSlice(Pageable pageable) {
+        Slice<Visit> visitSlice = visitRepository.findAllBy(pageable);
+        List<VisitDTO> visits = visitSlice.getContent().stream()
+                .map(visitMapper::toDto)
+                .toList();
 
-        return PageableContentDTO.from(visitPage, visits);
+        return SliceContentDTO.from(visitSlice, visits);
+    }
+
+    @Transactional(readOnly = true)
+    public SliceContentDTO<VisitDTO> scrollVisits(String after, int size) {
+        List<Visit> visits = visitRepository.findByIdGreaterThan(SliceContentDTO.decodeCursor(after), SliceContentDTO.keysetPage(size));
+        return SliceContentDTO.fromKeyset(visits, size, Visit::getId, visitMapper::toDto);
     }
 
     private void validateTimes(LocalDateTime startTime, LocalDateTime endTime) {
         if (startTime.isBefore(LocalDateTime.now())) {
-            throw new VisitException("Can't create visits in the past");
+            throw rejectSlot(VisitMetrics.REJECTED_PAST, "Can't create visits in the past");
         }
         if (endTime.isBefore(startTime)) {
-            throw new VisitException("End time must be after start time");
+            throw rejectSlot(VisitMetrics.REJECTED_INVALID, "End time must be after start time");
         }
         if (startTime.getMinute() % 15 != 0 || endTime.getMinute() % 15 != 0) {
+            throw rejectSlot(VisitMetrics.REJECTED_INVALID, "Visits must be in quarter (00, 15, 30, 45)");
+        }
+    }
+
+    private VisitException rejectSlot(String reason, String message) {
+        visitMetrics.slotRejected(reason);
+        return new VisitException(message);
+    }
+
+    private void validateSchedule(CreateVisitScheduleCommand command) {
+        if (command.fromDate() == null || command.toDate() == null || command.toDate().isBefore(command.fromDate())) {
+            throw new VisitException("Schedule end date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(command.fromDate(), command.toDate()) >= MAX_SCHEDULE_DAYS) {
+            throw new VisitException("Schedule can't span more than " + MAX_SCHEDULE_DAYS + " days");
+        }
+        if (command.daysOfWeek() == null || command.daysOfWeek().isEmpty()) {
+            throw new VisitException("Schedule must contain at least one day of week");
+        }
+        if (command.workStart() == null || command.workEnd() == null || !command.workEnd().isAfter(command.workStart())) {
+            throw new VisitException("End time must be after start time");
+        }
+        if (command.workStart().getMinute() % 15 != 0 || command.workEnd().getMinute() % 15 != 0) {
             throw new VisitException("Visits must be in quarter (00, 15, 30, 45)");
         }
+        if (command.slotMinutes() <= 0 || command.slotMinutes() % 15 != 0) {
+            throw new VisitException("Slot length must be a multiple of 15 minutes");
+        }
+    }
+
+    private boolean isSlotFree(Long doctorId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (visitIntervalIndex.isEnabled()) {
+            return visitIntervalIndex.isFree(doctorId, startTime, endTime);
+        }
+        return getConflictingVisits(doctorId, startTime, endTime).isEmpty();
     }
 
     private List<Visit> getConflictingVisits(Long doctorId, LocalDateTime startTime, LocalDateTime endTime) {
-        return visitRepository.findByDoctorId(doctorId).stream()
-                .filter(visit -> visit.getStartTime().isBefore(endTime) && visit.getEndTime().isAfter(startTime))
-                .toList();
+        return visitRepository.findByDoctorIdAndStartTimeBeforeAndEndTimeAfter(doctorId, endTime, startTime);
+    }
+
+    // The version check and the page itself must see the same rows, so ties are broken by id.
+    private static Pageable withStableOrder(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().getOrderFor("id") != null) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by("id")));
     }
-}
\ No newline at end of file
+}
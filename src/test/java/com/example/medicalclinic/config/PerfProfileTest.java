@@ -0,0 +1,31 @@
+package com.example.medicalclinic.config;
+
+import com.example.medicalclinic.repository.PatientRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@ActiveProfiles("perf")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:perf;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+public class PerfProfileTest {
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    void perfProfile_postgresCompatibilityMode_changelogAppliedAndPoolTuned() {
+        HikariDataSource pool = assertInstanceOf(HikariDataSource.class, dataSource);
+
+        assertEquals("clinic-perf", pool.getPoolName());
+        assertEquals(20, pool.getMaximumPoolSize());
+        assertEquals(0, patientRepository.count());
+    }
+}
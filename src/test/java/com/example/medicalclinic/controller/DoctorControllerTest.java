@@ -1,21 +1,29 @@
 package com.example.medicalclinic.controller;
 
+import com.example.medicalclinic.config.CacheConfig;
 import com.example.medicalclinic.exception.DoctorException;
 import com.example.medicalclinic.exception.FacilityException;
+import com.example.medicalclinic.exception.InvalidRequestException;
 import com.example.medicalclinic.exception.PatientException;
 import com.example.medicalclinic.model.CreateDoctorCommand;
 import com.example.medicalclinic.model.dto.DoctorDTO;
+import com.example.medicalclinic.model.dto.DoctorScheduleDTO;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
 import com.example.medicalclinic.model.dto.PatientDTO;
+import com.example.medicalclinic.model.dto.ScheduledVisitDTO;
+import com.example.medicalclinic.model.dto.SliceContentDTO;
 import com.example.medicalclinic.model.entity.Doctor;
 import com.example.medicalclinic.model.entity.Facility;
 import com.example.medicalclinic.model.entity.Patient;
 import com.example.medicalclinic.service.DoctorService;
+import com.example.medicalclinic.service.VisitService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -23,9 +31,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +45,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -43,8 +55,17 @@ public class DoctorControllerTest {
     private MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private CacheManager cacheManager;
     @MockitoBean
     private DoctorService doctorService;
+    @MockitoBean
+    private VisitService visitService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.DOCTOR_PAGES).clear();
+    }
 
     @Test
     void getDoctors_whenFound_thenReturnJson() throws Exception {
@@ -72,6 +93,56 @@ public class DoctorControllerTest {
                 .andExpect(jsonPath("$.totalPages", is(1)));
     }
 
+    @Test
+    void getDoctors_withoutTotal_thenReturnSliceWithoutCount() throws Exception {
+        Pageable pageable = PageRequest.of(0, 10);
+        List<DoctorDTO> doctors = List.of(createDoctorDto(1L, "email1@email.com"));
+        SliceContentDTO<DoctorDTO> response = new SliceContentDTO<>(doctors, 10, false, null);
+
+        when(doctorService.getDoctorsSlice(pageable)).thenReturn(response);
+
+        mockMvc.perform(get("/doctors")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .param("withTotal", "false")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", is(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void scrollDoctors_whenFound_thenReturnNextCursor() throws Exception {
+        String after = SliceContentDTO.encodeCursor(1L);
+        String nextCursor = SliceContentDTO.encodeCursor(2L);
+        List<DoctorDTO> doctors = List.of(createDoctorDto(2L, "email2@email.com"));
+        SliceContentDTO<DoctorDTO> response = new SliceContentDTO<>(doctors, 1, true, nextCursor);
+
+        when(doctorService.scrollDoctors(after, 1)).thenReturn(response);
+
+        mockMvc.perform(get("/doctors/scroll")
+                        .param("after", after)
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].email", is("email2@email.com")))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextCursor", is(nextCursor)));
+    }
+
+    @Test
+    void scrollDoctors_invalidCursor_return400() throws Exception {
+        when(doctorService.scrollDoctors("broken", 20)).thenThrow(new InvalidRequestException("Invalid cursor"));
+
+        mockMvc.perform(get("/doctors/scroll")
+                        .param("after", "broken")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Invalid cursor")))
+                .andExpect(jsonPath("$.status", is("BAD_REQUEST")));
+    }
+
     @Test
     void getDoctorByEmail_whenFound_return200() throws Exception {
         String email = "test@email.com";
@@ -108,11 +179,15 @@ public class DoctorControllerTest {
         CreateDoctorCommand command = new CreateDoctorCommand(doctorId, email, password);
         DoctorDTO doctor = createDoctorDto(doctorId, email);
 
-        when(doctorService.addDoctor(command)).thenReturn(doctor);
+        when(doctorService.addDoctor(command)).thenReturn(CompletableFuture.completedFuture(doctor));
 
-        mockMvc.perform(post("/doctors")
+        MvcResult result = mockMvc.perform(post("/doctors")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(command)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isCreated())
                 .andDo(print())
                 .andExpect(jsonPath("$.id", is(doctor.getId().intValue())))
@@ -149,11 +224,15 @@ public class DoctorControllerTest {
         CreateDoctorCommand doctorCommand = new CreateDoctorCommand(doctorId, newEmail, newPassword);
         DoctorDTO doctor = createDoctorDto(doctorId, newEmail);
 
-        when(doctorService.editDoctorByEmail(email, doctorCommand)).thenReturn(doctor);
+        when(doctorService.editDoctorByEmail(email, doctorCommand)).thenReturn(CompletableFuture.completedFuture(doctor));
 
-        mockMvc.perform(put("/doctors/{email}", email)
+        MvcResult result = mockMvc.perform(put("/doctors/{email}", email)
                         .content(objectMapper.writeValueAsString(doctorCommand))
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(doctorId.intValue())))
                 .andExpect(jsonPath("$.email", is(newEmail)));
@@ -165,11 +244,15 @@ public class DoctorControllerTest {
         String newEmail = "taken@email.com";
         CreateDoctorCommand command = new CreateDoctorCommand(1L, newEmail, "password");
 
-        when(doctorService.editDoctorByEmail(existingEmail, command)).thenThrow(new DoctorException("Email is taken"));
+        when(doctorService.editDoctorByEmail(existingEmail, command)).thenReturn(CompletableFuture.failedFuture(new DoctorException("Email is taken")));
 
-        mockMvc.perform(put("/doctors/{email}", existingEmail)
+        MvcResult result = mockMvc.perform(put("/doctors/{email}", existingEmail)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(command)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(jsonPath("$.message", is("Email is taken")))
                 .andExpect(jsonPath("$.status", is("NOT_FOUND")))
                 .andExpect(jsonPath("$.errorTime").exists());
@@ -296,4 +379,34 @@ public class DoctorControllerTest {
                 .facilityIds(List.of(1L, 2L, 3L))
                 .build();
     }
+
+    @Test
+    void getDoctorSchedule_whenFound_thenReturnJson() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(1);
+        DoctorScheduleDTO schedule = new DoctorScheduleDTO(1L, date, List.of(
+                new ScheduledVisitDTO(10L, date.atTime(9, 0), date.atTime(9, 15), 5L, "John Doe"),
+                new ScheduledVisitDTO(11L, date.atTime(9, 15), date.atTime(9, 30), null, null)));
+
+        when(visitService.getDoctorSchedule(1L, date)).thenReturn(schedule);
+
+        mockMvc.perform(get("/doctors/1/schedule")
+                        .param("date", date.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.doctorId", is(1)))
+                .andExpect(jsonPath("$.visits.length()", is(2)))
+                .andExpect(jsonPath("$.visits[0].patientName", is("John Doe")))
+                .andExpect(jsonPath("$.visits[1].patientId").doesNotExist());
+    }
+
+    @Test
+    void getDoctorSchedule_whenDoctorNotFound_thenReturnNotFound() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(1);
+
+        when(visitService.getDoctorSchedule(1L, date)).thenThrow(new DoctorException("Doctor doesnt exist"));
+
+        mockMvc.perform(get("/doctors/1/schedule")
+                        .param("date", date.toString()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", is("Doctor doesnt exist")));
+    }
 }
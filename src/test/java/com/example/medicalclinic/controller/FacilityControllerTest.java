@@ -1,18 +1,24 @@
 package com.example.medicalclinic.controller;
 
+import com.example.medicalclinic.config.CacheConfig;
 import com.example.medicalclinic.exception.FacilityException;
+import com.example.medicalclinic.exception.InvalidRequestException;
 import com.example.medicalclinic.model.CreateFacilityCommand;
 import com.example.medicalclinic.model.dto.DoctorDTO;
 import com.example.medicalclinic.model.dto.FacilityDTO;
+import com.example.medicalclinic.model.dto.NearbyFacilityDTO;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
 import com.example.medicalclinic.model.entity.Facility;
 import com.example.medicalclinic.service.DoctorService;
 import com.example.medicalclinic.service.FacilityService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -20,18 +26,26 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -42,9 +56,16 @@ public class FacilityControllerTest {
     private MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private CacheManager cacheManager;
     @MockitoBean
     private FacilityService facilityService;
 
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.FACILITY_PAGES).clear();
+    }
+
     @Test
     void getFacilities_whenFound_return200() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
@@ -71,6 +92,26 @@ public class FacilityControllerTest {
                 .andExpect(jsonPath("$.totalPages", is(1)));
     }
 
+    @Test
+    void getFacilities_repeatedRequest_servedFromCache() throws Exception {
+        Pageable pageable = PageRequest.of(0, 10);
+        List<FacilityDTO> facilities = List.of(createFacilityDto(1L, "Hospital1"));
+        PageableContentDTO<FacilityDTO> response = PageableContentDTO.from(new PageImpl<>(facilities, pageable, 1L), facilities);
+
+        when(facilityService.getAllFacilities(pageable)).thenReturn(response);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/facilities")
+                            .param("page", "0")
+                            .param("size", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.content[0].facilityName", is("Hospital1")));
+        }
+
+        verify(facilityService, times(1)).getAllFacilities(pageable);
+    }
+
     @Test
     void getFacilityByName_whenFound_return200() throws Exception {
         String facilityName = "Hospital";
@@ -96,6 +137,47 @@ public class FacilityControllerTest {
                 .andExpect(jsonPath("$.errorTime").exists());
     }
 
+    @Test
+    void getFacilitiesNear_whenFound_return200() throws Exception {
+        FacilityDTO facility = createFacilityDto(1L, "Hospital");
+
+        when(facilityService.findNearby(52.23, 21.0, 5, null, 20))
+                .thenReturn(List.of(new NearbyFacilityDTO(facility, 1.25)));
+
+        mockMvc.perform(get("/facilities/near")
+                        .param("lat", "52.23")
+                        .param("lon", "21.0")
+                        .param("radiusKm", "5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].facility.facilityName", is("Hospital")))
+                .andExpect(jsonPath("$[0].distanceKm", is(1.25)));
+    }
+
+    @Test
+    void getFacilitiesNear_noLocation_return400() throws Exception {
+        when(facilityService.findNearby(null, null, 10, null, 20))
+                .thenThrow(new InvalidRequestException("Either lat and lon or postcode is required"));
+
+        mockMvc.perform(get("/facilities/near")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Either lat and lon or postcode is required")))
+                .andExpect(jsonPath("$.status", is("BAD_REQUEST")));
+    }
+
+    @Test
+    void getFacilitiesNear_unexpectedIllegalArgument_notReportedAsBadRequest() {
+        when(facilityService.findNearby(52.23, 21.0, 10, null, 20))
+                .thenThrow(new IllegalArgumentException("Bug in the service"));
+
+        ServletException exception = assertThrows(ServletException.class, () -> mockMvc.perform(get("/facilities/near")
+                .param("lat", "52.23")
+                .param("lon", "21.0")));
+
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
     @Test
     void removeFacility_whenFound_return200() throws Exception {
         String facilityName = "name";
@@ -152,11 +234,15 @@ public class FacilityControllerTest {
         CreateFacilityCommand facilityCommand = createFacilityCommand("facilityName");
         FacilityDTO facilityDTO = createFacilityDto(1L, "name");
 
-        when(facilityService.saveFacilitiesWithDoctors(List.of(facilityCommand))).thenReturn(List.of(facilityDTO));
+        when(facilityService.saveFacilitiesWithDoctors(List.of(facilityCommand))).thenReturn(CompletableFuture.completedFuture(List.of(facilityDTO)));
 
-        mockMvc.perform(post("/facilities")
+        MvcResult result = mockMvc.perform(post("/facilities")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(List.of(facilityDTO))))
+                        .content(objectMapper.writeValueAsString(List.of(facilityCommand))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(jsonPath("$[0].id", is(facilityDTO.getId().intValue())))
                 .andExpect(jsonPath("$[0].facilityName", is(facilityDTO.getFacilityName())));
     }
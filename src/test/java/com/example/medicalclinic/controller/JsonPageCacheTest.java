@@ -0,0 +1,101 @@
+package com.example.medicalclinic.controller;
+
+import com.example.medicalclinic.config.CacheConfig;
+import com.example.medicalclinic.exception.FacilityException;
+import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonPageCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private JsonPageCache jsonPageCache;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.jsonPageCache = new JsonPageCache(new ConcurrentMapCacheManager(CacheConfig.FACILITY_PAGES),
+                new ObjectMapper(), meterRegistry, 1);
+    }
+
+    @Test
+    void get_samePageTwice_renderedOnceAndServedFromCache() {
+        // Given
+        AtomicInteger renders = new AtomicInteger();
+        PageableContentDTO<String> page = new PageableContentDTO<>(1, 1, 0, List.of("Hospital1"));
+
+        // When
+        ResponseEntity<byte[]> first = jsonPageCache.get(CacheConfig.FACILITY_PAGES, PageRequest.of(0, 10),
+                () -> { renders.incrementAndGet(); return page; });
+        ResponseEntity<byte[]> second = jsonPageCache.get(CacheConfig.FACILITY_PAGES, PageRequest.of(0, 10),
+                () -> { renders.incrementAndGet(); return page; });
+
+        // Then
+        String json = "{\"totalPages\":1,\"totalElements\":1,\"currentPage\":0,\"content\":[\"Hospital1\"]}";
+        assertEquals(json, new String(second.getBody(), StandardCharsets.UTF_8));
+        assertSame(first.getBody(), second.getBody());
+        assertEquals(1, renders.get());
+        assertEquals(json.length(), meterRegistry.get("clinic.page.cache.bytes").tag("result", "rendered").counter().count());
+        assertEquals(json.length(), meterRegistry.get("clinic.page.cache.bytes").tag("result", "served").counter().count());
+    }
+
+    @Test
+    void get_pageBeyondMaxPage_alwaysRendered() {
+        // Given
+        AtomicInteger renders = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            jsonPageCache.get(CacheConfig.FACILITY_PAGES, PageRequest.of(2, 10),
+                    () -> { renders.incrementAndGet(); return List.of(); });
+        }
+
+        // Then
+        assertEquals(2, renders.get());
+        assertEquals(0, meterRegistry.get("clinic.page.cache.bytes").tag("result", "served").counter().count());
+    }
+
+    @Test
+    void get_pageEvictedWhileRendering_stalePageNotServedAgain() {
+        // Given
+        CacheManager cacheManager = new CacheConfig().cacheManager("maximumSize=10", "maximumSize=10", "maximumSize=10");
+        JsonPageCache pageCache = new JsonPageCache(cacheManager, new ObjectMapper(), meterRegistry, 1);
+        PageableContentDTO<String> stale = new PageableContentDTO<>(1, 1, 0, List.of("Hospital1"));
+        PageableContentDTO<String> fresh = new PageableContentDTO<>(1, 1, 0, List.of("Hospital2"));
+
+        // When
+        pageCache.get(CacheConfig.FACILITY_PAGES, PageRequest.of(0, 10), () -> {
+            cacheManager.getCache(CacheConfig.FACILITY_PAGES).clear();
+            return stale;
+        });
+        ResponseEntity<byte[]> second = pageCache.get(CacheConfig.FACILITY_PAGES, PageRequest.of(0, 10), () -> fresh);
+        ResponseEntity<byte[]> third = pageCache.get(CacheConfig.FACILITY_PAGES, PageRequest.of(0, 10), () -> stale);
+
+        // Then
+        assertTrue(new String(second.getBody(), StandardCharsets.UTF_8).contains("Hospital2"));
+        assertSame(second.getBody(), third.getBody());
+    }
+
+    @Test
+    void get_loaderFails_exceptionPropagated() {
+        // When
+        FacilityException exception = assertThrows(FacilityException.class,
+                () -> jsonPageCache.get(CacheConfig.FACILITY_PAGES, PageRequest.of(0, 10), () -> {
+                    throw new FacilityException("Facility doesnt exist");
+                }));
+
+        // Then
+        assertEquals("Facility doesnt exist", exception.getMessage());
+    }
+}
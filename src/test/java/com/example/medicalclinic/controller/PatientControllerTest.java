@@ -4,7 +4,10 @@ import com.example.medicalclinic.exception.PatientException;
 import com.example.medicalclinic.model.ChangePasswordCommand;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
 import com.example.medicalclinic.model.dto.PatientDTO;
+import com.example.medicalclinic.model.dto.PatientImportDTO;
+import com.example.medicalclinic.model.dto.RejectedRowDTO;
 import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.service.PatientImportService;
 import com.example.medicalclinic.service.PatientService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -18,9 +21,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -40,6 +46,8 @@ public class PatientControllerTest {
     private ObjectMapper objectMapper;
     @MockitoBean
     private PatientService patientService;
+    @MockitoBean
+    private PatientImportService patientImportService;
 
     @Test
     void getPatients_whenFound_thenReturnJson() throws Exception {
@@ -86,6 +94,30 @@ public class PatientControllerTest {
                 .andExpect(jsonPath("$.email", is(email)));
     }
 
+    @Test
+    void getPatientByEmail_whenETagMatches_thenNotModified() throws Exception {
+        String email = "test@email.com";
+        PatientDTO patientDto = PatientDTO.builder()
+                .id(1L)
+                .email(email)
+                .version(3L)
+                .updatedAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .build();
+
+        when(patientService.getPatientByEmail(email)).thenReturn(patientDto);
+
+        mockMvc.perform(get("/patients/{email}", email))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        mockMvc.perform(get("/patients/{email}", email)
+                        .header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getPatientByEmail_patientNotFound_thenReturnJson() throws Exception {
         String email = "test@email.com";
@@ -105,11 +137,15 @@ public class PatientControllerTest {
         Patient patient = createPatient("test@example.com", "ID123456");
         PatientDTO patientDTO = createPatientDto("test@example.com", "ID123456");
 
-        when(patientService.addPatient(any())).thenReturn(patientDTO);
+        when(patientService.addPatient(any())).thenReturn(CompletableFuture.completedFuture(patientDTO));
 
-        mockMvc.perform(post("/patients")
+        MvcResult result = mockMvc.perform(post("/patients")
                         .content(objectMapper.writeValueAsString(patient))
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.email", is("test@example.com")))
                 .andExpect(jsonPath("$.fullName", is("John Doe")))
@@ -123,11 +159,15 @@ public class PatientControllerTest {
         Patient patient = createPatient("test@example.com", "ID123456");
         String errorMessage = "Patient with email: " + patient.getEmail() + " already exists";
 
-        when(patientService.addPatient(any())).thenThrow(new PatientException(errorMessage));
+        when(patientService.addPatient(any())).thenReturn(CompletableFuture.failedFuture(new PatientException(errorMessage)));
 
-        mockMvc.perform(post("/patients")
+        MvcResult result = mockMvc.perform(post("/patients")
                         .content(objectMapper.writeValueAsString(patient))
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(jsonPath("$.message", is(errorMessage)))
                 .andExpect(jsonPath("$.status", is("NOT_FOUND")))
                 .andExpect(jsonPath("$.errorTime").exists());
@@ -138,11 +178,15 @@ public class PatientControllerTest {
         Patient patient = createPatient("test@example.com", "ID123456");
         String errorMessage = "Patient with IdCardNo: " + patient.getIdCardNo() + " already exists";
 
-        when(patientService.addPatient(any())).thenThrow(new PatientException(errorMessage));
+        when(patientService.addPatient(any())).thenReturn(CompletableFuture.failedFuture(new PatientException(errorMessage)));
 
-        mockMvc.perform(post("/patients")
+        MvcResult result = mockMvc.perform(post("/patients")
                         .content(objectMapper.writeValueAsString(patient))
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(jsonPath("$.message", is(errorMessage)))
                 .andExpect(jsonPath("$.status", is("NOT_FOUND")))
                 .andExpect(jsonPath("$.errorTime").exists());
@@ -182,11 +226,15 @@ public class PatientControllerTest {
         PatientDTO patientDTO = createPatientDto("new@email.com", "ID123456", "654321");
         Patient patient = createPatient(email, "ID123456");
 
-        when(patientService.editPatientByEmail(eq(email), any())).thenReturn(patientDTO);
+        when(patientService.editPatientByEmail(eq(email), any())).thenReturn(CompletableFuture.completedFuture(patientDTO));
 
-        mockMvc.perform(put("/patients/{email}", email)
+        MvcResult result = mockMvc.perform(put("/patients/{email}", email)
                         .content(objectMapper.writeValueAsString(patient))
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.phoneNumber", is("654321")))
                 .andExpect(jsonPath("$.email", is("new@email.com")));
@@ -197,11 +245,15 @@ public class PatientControllerTest {
         String email = "test@email.com";
         String errorMessage = "Patient doesnt Exist";
         Patient patient = createPatient("test@example.com", "ID123456");
-        when(patientService.editPatientByEmail(eq(email), any())).thenThrow(new PatientException(errorMessage));
+        when(patientService.editPatientByEmail(eq(email), any())).thenReturn(CompletableFuture.failedFuture(new PatientException(errorMessage)));
 
-        mockMvc.perform(put("/patients/{email}", email)
+        MvcResult result = mockMvc.perform(put("/patients/{email}", email)
                         .content(objectMapper.writeValueAsString(patient))
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(jsonPath("$.message", is(errorMessage)))
                 .andExpect(jsonPath("$.status", is("NOT_FOUND")))
                 .andExpect(jsonPath("$.errorTime").exists());
@@ -212,15 +264,20 @@ public class PatientControllerTest {
         String email = "test@email.com";
         String password = "newPassword";
         ChangePasswordCommand passwordCommand = new ChangePasswordCommand(password);
-        Patient patient = createPatient(email, "ID123456");
-        patient.setPassword(password);
+        PatientDTO patientDTO = createPatientDto(email, "ID123456");
 
-        when(patientService.changePassword(email, password)).thenReturn(patient);
+        when(patientService.changePassword(email, password)).thenReturn(CompletableFuture.completedFuture(patientDTO));
 
-        mockMvc.perform(patch("/patients/{email}/password", email)
+        MvcResult result = mockMvc.perform(patch("/patients/{email}/password", email)
                         .content(objectMapper.writeValueAsString(passwordCommand))
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.password", is(password)));
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is(email)))
+                .andExpect(jsonPath("$.password").doesNotExist());
     }
 
     @Test
@@ -272,4 +329,40 @@ public class PatientControllerTest {
                 .phoneNumber(phoneNumber)
                 .build();
     }
+
+    @Test
+    void searchPatients_whenFound_thenReturnJson() throws Exception {
+        PatientDTO patient = PatientDTO.builder()
+                .id(1L)
+                .email("jan@email.com")
+                .fullName("Jan Kowalski")
+                .build();
+
+        when(patientService.searchPatients("kowal", 5)).thenReturn(List.of(patient));
+
+        mockMvc.perform(get("/patients/search")
+                        .param("q", "kowal")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].fullName", is("Jan Kowalski")));
+    }
+
+    @Test
+    void importPatients_csvBody_returnsReport() throws Exception {
+        when(patientImportService.importCsv(any())).thenReturn(
+                new PatientImportDTO(1, 1, List.of(new RejectedRowDTO(3, "Duplicate email in file: jan@email.com"))));
+
+        mockMvc.perform(post("/patients/import")
+                        .contentType("text/csv")
+                        .content("""
+                                email,password,idCardNo,firstName,lastName
+                                jan@email.com,secret,ID1,Jan,Kowalski
+                                jan@email.com,secret,ID2,Jan,Nowak
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount", is(1)))
+                .andExpect(jsonPath("$.rejectedCount", is(1)))
+                .andExpect(jsonPath("$.rejectedRows[0].line", is(3)));
+    }
 }
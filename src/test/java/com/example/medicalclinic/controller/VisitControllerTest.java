@@ -2,14 +2,21 @@ package com.example.medicalclinic.controller;
 
 import com.example.medicalclinic.exception.DoctorException;
 import com.example.medicalclinic.exception.PatientException;
+import com.example.medicalclinic.exception.VisitAlreadyBookedException;
 import com.example.medicalclinic.exception.VisitException;
 import com.example.medicalclinic.model.CreateVisitCommand;
+import com.example.medicalclinic.model.CreateVisitScheduleCommand;
 import com.example.medicalclinic.model.dto.DoctorDTO;
+import com.example.medicalclinic.model.ResourceVersion;
+import com.example.medicalclinic.model.Versioned;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.SkippedSlotDTO;
 import com.example.medicalclinic.model.dto.VisitDTO;
+import com.example.medicalclinic.model.dto.VisitScheduleDTO;
 import com.example.medicalclinic.model.entity.Visit;
 import com.example.medicalclinic.repository.DoctorRepository;
 import com.example.medicalclinic.repository.VisitRepository;
+import com.example.medicalclinic.service.BookingQueue;
 import com.example.medicalclinic.service.VisitService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -23,17 +30,29 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -45,6 +64,8 @@ public class VisitControllerTest {
     private ObjectMapper objectMapper;
     @MockitoBean
     private VisitService visitService;
+    @MockitoBean
+    private BookingQueue bookingQueue;
 
     @Test
     void getVisits_whenFound_thenReturnJson() throws Exception {
@@ -57,13 +78,14 @@ public class VisitControllerTest {
 
         PageableContentDTO<VisitDTO> response = PageableContentDTO.from(page, visits);
 
-        when(visitService.getVisits(pageable)).thenReturn(response);
+        when(visitService.getVisits(pageable)).thenReturn(new Versioned<>(response, new ResourceVersion("\"abc\"", -1)));
 
         mockMvc.perform(get("/visits")
                         .param("page", "0")
                         .param("size", "10")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc\""))
                 .andExpect(jsonPath("$.content.length()", is(2)))
                 .andExpect(jsonPath("$.content[0].id", is(visit1.getId().intValue())))
                 .andExpect(jsonPath("$.content[1].id", is(visit2.getId().intValue())))
@@ -74,6 +96,23 @@ public class VisitControllerTest {
                 .andExpect(jsonPath("$.totalPages", is(1)));
     }
 
+    @Test
+    void getVisits_whenETagMatches_thenNotModified() throws Exception {
+        Pageable pageable = PageRequest.of(0, 10);
+        PageableContentDTO<VisitDTO> response = PageableContentDTO.from(new PageImpl<>(List.<VisitDTO>of(), pageable, 0L), List.of());
+
+        when(visitService.getVisits(pageable)).thenReturn(new Versioned<>(response, new ResourceVersion("\"abc\"", -1)));
+
+        mockMvc.perform(get("/visits")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .header("If-None-Match", "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(visitService).getVisits(pageable);
+    }
+
     @Test
     void createVisit_whenAdded_thenReturnJson() throws Exception {
         Long doctorId = 1L;
@@ -113,6 +152,50 @@ public class VisitControllerTest {
                 .andExpect(jsonPath("$.errorTime").exists());
     }
 
+    @Test
+    void createVisitSchedule_whenCreated_thenReturnReport() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(1);
+        CreateVisitScheduleCommand command = CreateVisitScheduleCommand.builder()
+                .doctorId(1L)
+                .fromDate(day)
+                .toDate(day.plusDays(6))
+                .daysOfWeek(Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY))
+                .workStart(LocalTime.of(8, 0))
+                .workEnd(LocalTime.of(12, 0))
+                .slotMinutes(15)
+                .build();
+        SkippedSlotDTO skippedSlot = new SkippedSlotDTO(day.atTime(8, 0), day.atTime(8, 15), "Doctor has a visit at this time");
+        VisitScheduleDTO report = new VisitScheduleDTO(31, 1, List.of(skippedSlot));
+
+        when(visitService.createVisitSchedule(command)).thenReturn(report);
+
+        mockMvc.perform(post("/visits/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(command)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdCount", is(31)))
+                .andExpect(jsonPath("$.skippedCount", is(1)))
+                .andExpect(jsonPath("$.skippedSlots[0].reason", is(skippedSlot.reason())));
+    }
+
+    @Test
+    void getAvailableVisits_whenFound_thenReturnJson() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(6);
+        VisitDTO visit = createVisitDto(1L, "doctor@example.com");
+
+        when(visitService.findAvailableVisits("Clinic", from, to)).thenReturn(List.of(visit));
+
+        mockMvc.perform(get("/visits/available")
+                        .param("facility", "Clinic")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].doctor.email", is("doctor@example.com")));
+    }
+
     @Test
     void bookVisit_whenBooked_thenReturnJson() throws Exception {
         Long visitId = 1L;
@@ -121,15 +204,40 @@ public class VisitControllerTest {
 
         when(visitService.bookVisit(eq(visitId), eq(patientId))).thenReturn(visit);
 
-        mockMvc.perform(post("/visits/book")
+        MvcResult result = mockMvc.perform(post("/visits/book")
                         .param("visitId", visitId.toString())
                         .param("patientId", patientId.toString())
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(visitId.intValue())))
                 .andExpect(jsonPath("$.doctor.email", is("doctor@example.com")));
     }
 
+    @Test
+    void bookVisit_queueEnabledAndVisitTaken_thenReturnConflict() throws Exception {
+        Long visitId = 1L;
+        Long patientId = 1L;
+
+        when(bookingQueue.isEnabled()).thenReturn(true);
+        when(bookingQueue.submit(visitId, patientId))
+                .thenReturn(CompletableFuture.failedFuture(new VisitAlreadyBookedException("Visit is already booked")));
+
+        MvcResult result = mockMvc.perform(post("/visits/book")
+                        .param("visitId", visitId.toString())
+                        .param("patientId", patientId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Visit is already booked")));
+        verify(visitService, never()).bookVisit(any(), any());
+    }
+
     @Test
     void bookVisit_patientNotFound_thenThrowException() throws Exception {
         Long visitId = 1L;
@@ -170,17 +278,30 @@ public class VisitControllerTest {
         Long patientId = 1L;
         String errorMessage = "Visit is already booked";
 
-        when(visitService.bookVisit(visitId, patientId)).thenThrow(new VisitException(errorMessage));
+        when(visitService.bookVisit(visitId, patientId)).thenThrow(new VisitAlreadyBookedException(errorMessage));
 
         mockMvc.perform(post("/visits/book")
                         .param("visitId", visitId.toString())
                         .param("patientId", patientId.toString())
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.message", is(errorMessage)))
-                .andExpect(jsonPath("$.status", is("NOT_FOUND")))
+                .andExpect(jsonPath("$.status", is("CONFLICT")))
                 .andExpect(jsonPath("$.errorTime").exists());
     }
 
+    @Test
+    void exportVisits_whenRequested_streamedWithExportTimeout() throws Exception {
+        MvcResult result = mockMvc.perform(get("/visits/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(1_800_000L, result.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+    }
+
     private VisitDTO createVisitDto(Long visitId, String doctorEmail) {
         return VisitDTO.builder()
                 .id(visitId)
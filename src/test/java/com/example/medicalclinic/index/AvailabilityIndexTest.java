@@ -0,0 +1,117 @@
+package com.example.medicalclinic.index;
+
+import com.example.medicalclinic.model.projection.VisitStartView;
+import com.example.medicalclinic.repository.VisitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class AvailabilityIndexTest {
+    private static final LocalDateTime DAY = LocalDate.now().plusDays(1).atStartOfDay();
+
+    private VisitRepository visitRepository;
+    private AvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    void setUp() {
+        this.visitRepository = Mockito.mock(VisitRepository.class);
+        this.availabilityIndex = new AvailabilityIndex(visitRepository);
+    }
+
+    @Test
+    void pruneBefore_pastDays_dropped() {
+        // Given
+        availabilityIndex.markFree(1L, DAY.withHour(8));
+        availabilityIndex.markFree(1L, DAY.plusDays(1).withHour(8));
+
+        // When
+        availabilityIndex.pruneBefore(DAY.toLocalDate().plusDays(1));
+
+        // Then
+        assertEquals(Set.of(), availabilityIndex.doctorsWithFreeSlots(List.of(1L), DAY, DAY.plusDays(1)));
+        assertEquals(Set.of(1L), availabilityIndex.doctorsWithFreeSlots(List.of(1L), DAY.plusDays(1), DAY.plusDays(2)));
+    }
+
+    @Test
+    void doctorsWithFreeSlots_freeVisitInWindow_doctorReturned() {
+        // Given
+        availabilityIndex.markFree(1L, DAY.withHour(23).withMinute(45));
+        availabilityIndex.markFree(2L, DAY.withHour(8));
+
+        // When
+        Set<Long> result = availabilityIndex.doctorsWithFreeSlots(List.of(1L, 2L, 3L), DAY.withHour(20), DAY.plusDays(1));
+
+        // Then
+        assertEquals(Set.of(1L), result);
+    }
+
+    @Test
+    void doctorsWithFreeSlots_windowStartsMidQuarter_earlierSlotExcluded() {
+        // Given
+        availabilityIndex.markFree(1L, DAY.withHour(10));
+
+        // When
+        Set<Long> result = availabilityIndex.doctorsWithFreeSlots(List.of(1L), DAY.withHour(10).withMinute(5), DAY.plusDays(7));
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void markBooked_onlyFreeVisitBooked_doctorNoLongerReturned() {
+        // Given
+        availabilityIndex.markFree(1L, DAY.withHour(17).withMinute(30));
+
+        // When
+        availabilityIndex.markBooked(1L, DAY.withHour(17).withMinute(30));
+
+        // Then
+        assertTrue(availabilityIndex.doctorsWithFreeSlots(List.of(1L), DAY, DAY.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void rebuild_freeVisitsInDatabase_indexRepopulated() {
+        // Given
+        availabilityIndex.markFree(9L, DAY.withHour(9));
+        when(visitRepository.streamFreeVisitStarts(any())).thenReturn(Stream.of(visitStart(4L, DAY.plusDays(2).withHour(12))));
+
+        // When
+        availabilityIndex.rebuild();
+
+        // Then
+        assertEquals(Set.of(4L), availabilityIndex.doctorsWithFreeSlots(List.of(4L, 9L), DAY, DAY.plusDays(3)));
+    }
+
+    @Test
+    void mask_rangeAcrossWordBoundary_bitsSplitBetweenWords() {
+        assertEquals(0xFL << 60, AvailabilityIndex.mask(0, 60, 68));
+        assertEquals(0xFL, AvailabilityIndex.mask(1, 60, 68));
+        assertEquals(-1L, AvailabilityIndex.mask(0, 0, AvailabilityIndex.QUARTERS_PER_DAY));
+        assertEquals(0L, AvailabilityIndex.mask(1, 0, 64));
+    }
+
+    private VisitStartView visitStart(Long doctorId, LocalDateTime startTime) {
+        return new VisitStartView() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return startTime;
+            }
+        };
+    }
+}
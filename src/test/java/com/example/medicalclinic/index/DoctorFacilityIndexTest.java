@@ -0,0 +1,91 @@
+package com.example.medicalclinic.index;
+
+import com.example.medicalclinic.model.projection.IdPair;
+import com.example.medicalclinic.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.HashSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class DoctorFacilityIndexTest {
+    private DoctorRepository doctorRepository;
+    private DoctorFacilityIndex doctorFacilityIndex;
+
+    @BeforeEach
+    void setUp() {
+        this.doctorRepository = Mockito.mock(DoctorRepository.class);
+        this.doctorFacilityIndex = new DoctorFacilityIndex(doctorRepository);
+    }
+
+    @Test
+    void rebuild_linksInDatabase_bothDirectionsSorted() {
+        // Given
+        when(doctorRepository.streamFacilityLinks()).thenReturn(Stream.of(
+                new IdPair(1L, 30L), new IdPair(2L, 10L), new IdPair(1L, 10L), new IdPair(1L, 20L)));
+
+        // When
+        doctorFacilityIndex.rebuild();
+
+        // Then
+        assertArrayEquals(new long[]{10L, 20L, 30L}, doctorFacilityIndex.facilityIdsOf(1L));
+        assertArrayEquals(new long[]{1L, 2L}, doctorFacilityIndex.doctorIdsOf(10L));
+        assertArrayEquals(new long[0], doctorFacilityIndex.facilityIdsOf(3L));
+    }
+
+    @Test
+    void afterSingletonsInstantiated_loadsLinksBeforeTraffic() {
+        // Given
+        when(doctorRepository.streamFacilityLinks()).thenReturn(Stream.of(new IdPair(1L, 10L)));
+
+        // When
+        doctorFacilityIndex.afterSingletonsInstantiated();
+
+        // Then
+        assertArrayEquals(new long[]{10L}, doctorFacilityIndex.facilityIdsOf(1L));
+    }
+
+    @Test
+    void linkAndUnlink_updatesBothDirections() {
+        // Given
+        doctorFacilityIndex.link(1L, 20L);
+        doctorFacilityIndex.link(1L, 10L);
+        doctorFacilityIndex.link(1L, 10L);
+        doctorFacilityIndex.link(2L, 10L);
+        long[] before = doctorFacilityIndex.facilityIdsOf(1L);
+
+        // When
+        doctorFacilityIndex.unlink(1L, 10L);
+
+        // Then
+        assertArrayEquals(new long[]{10L, 20L}, before);
+        assertArrayEquals(new long[]{20L}, doctorFacilityIndex.facilityIdsOf(1L));
+        assertArrayEquals(new long[]{2L}, doctorFacilityIndex.doctorIdsOf(10L));
+    }
+
+    @Test
+    void removeFacility_linkedDoctors_facilityDroppedFromEachDoctor() {
+        // Given
+        doctorFacilityIndex.link(1L, 10L);
+        doctorFacilityIndex.link(1L, 20L);
+        doctorFacilityIndex.link(2L, 10L);
+
+        // When
+        doctorFacilityIndex.removeFacility(10L);
+
+        // Then
+        assertArrayEquals(new long[]{20L}, doctorFacilityIndex.facilityIdsOf(1L));
+        assertArrayEquals(new long[0], doctorFacilityIndex.facilityIdsOf(2L));
+        assertArrayEquals(new long[0], doctorFacilityIndex.doctorIdsOf(10L));
+    }
+
+    @Test
+    void isLoaded_plainCollection_true() {
+        assertTrue(DoctorFacilityIndex.isLoaded(new HashSet<>()));
+    }
+}
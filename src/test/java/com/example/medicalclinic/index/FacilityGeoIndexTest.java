@@ -0,0 +1,81 @@
+package com.example.medicalclinic.index;
+
+import com.example.medicalclinic.model.projection.FacilityLocation;
+import com.example.medicalclinic.repository.FacilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+public class FacilityGeoIndexTest {
+    private FacilityRepository facilityRepository;
+    private FacilityGeoIndex facilityGeoIndex;
+
+    @BeforeEach
+    void setUp() {
+        this.facilityRepository = Mockito.mock(FacilityRepository.class);
+        this.facilityGeoIndex = new FacilityGeoIndex(facilityRepository);
+    }
+
+    @Test
+    void near_facilitiesAroundPoint_onlyThoseInRadiusNearestFirst() {
+        // Given
+        when(facilityRepository.streamLocations()).thenReturn(Stream.of(
+                new FacilityLocation(1L, "00-001", 52.2297, 21.0122),
+                new FacilityLocation(2L, "05-500", 52.1000, 21.0300),
+                new FacilityLocation(3L, "30-001", 50.0647, 19.9450),
+                new FacilityLocation(4L, "00-002", null, null)));
+        facilityGeoIndex.rebuild();
+
+        // When
+        List<FacilityGeoIndex.Nearby> result = facilityGeoIndex.near(52.2300, 21.0100, 20, 10);
+
+        // Then
+        assertEquals(List.of(1L, 2L), result.stream().map(FacilityGeoIndex.Nearby::facilityId).toList());
+        assertEquals(14.5, result.get(1).distanceKm(), 0.5);
+    }
+
+    @Test
+    void near_acrossAntimeridian_facilityFound() {
+        // Given
+        facilityGeoIndex.index(new FacilityLocation(1L, null, -17.80, 179.98));
+
+        // When
+        List<FacilityGeoIndex.Nearby> result = facilityGeoIndex.near(-17.80, -179.99, 10, 10);
+
+        // Then
+        assertEquals(List.of(1L), result.stream().map(FacilityGeoIndex.Nearby::facilityId).toList());
+    }
+
+    @Test
+    void index_facilityMoved_oldCellAndPostcodeDropped() {
+        // Given
+        facilityGeoIndex.index(new FacilityLocation(1L, "00-001", 52.2297, 21.0122));
+
+        // When
+        facilityGeoIndex.index(new FacilityLocation(1L, "30-001", 50.0647, 19.9450));
+
+        // Then
+        assertEquals(List.of(), facilityGeoIndex.near(52.2297, 21.0122, 50, 10));
+        assertEquals(List.of(), facilityGeoIndex.byPostcodePrefix("00", 10));
+        assertEquals(List.of(1L), facilityGeoIndex.byPostcodePrefix("30 0", 10));
+    }
+
+    @Test
+    void remove_indexedFacility_noLongerFound() {
+        // Given
+        facilityGeoIndex.index(new FacilityLocation(1L, "00-001", 52.2297, 21.0122));
+
+        // When
+        facilityGeoIndex.remove(1L);
+
+        // Then
+        assertEquals(List.of(), facilityGeoIndex.near(52.2297, 21.0122, 5, 10));
+        assertEquals(List.of(), facilityGeoIndex.byPostcodePrefix("00", 10));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.medicalclinic.index;
+
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.model.projection.PatientSearchTerms;
+import com.example.medicalclinic.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+public class PatientSearchIndexTest {
+    private PatientRepository patientRepository;
+    private PatientSearchIndex patientSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        this.patientRepository = Mockito.mock(PatientRepository.class);
+        this.patientSearchIndex = new PatientSearchIndex(patientRepository);
+        patientSearchIndex.index(createPatient(1L, "Łukasz", "Żółkowski", "ABC123456", "+48 600 100 200"));
+        patientSearchIndex.index(createPatient(2L, "Anna", "Kowalska", "XYZ987654", "601100200"));
+        patientSearchIndex.index(createPatient(3L, "Jan", "Kowalski", "ABD555444", null));
+    }
+
+    @Test
+    void search_namePrefixWithDiacritics_matchesNormalized() {
+        assertEquals(List.of(1L), patientSearchIndex.search("zolk", 10));
+        assertEquals(List.of(1L), patientSearchIndex.search("Łuk", 10));
+    }
+
+    @Test
+    void search_multipleWords_allWordsMustMatch() {
+        assertEquals(List.of(3L), patientSearchIndex.search("kowal jan", 10));
+    }
+
+    @Test
+    void search_idCardAndPhonePrefix_matched() {
+        assertEquals(List.of(1L, 3L), patientSearchIndex.search("ab", 10));
+        assertEquals(List.of(1L), patientSearchIndex.search("48600", 10));
+    }
+
+    @Test
+    void search_limitReached_stopsEarly() {
+        assertEquals(1, patientSearchIndex.search("kowal", 1).size());
+    }
+
+    @Test
+    void index_patientEdited_oldTermsRemoved() {
+        // When
+        patientSearchIndex.index(createPatient(2L, "Anna", "Nowak", "XYZ987654", "601100200"));
+
+        // Then
+        assertEquals(List.of(3L), patientSearchIndex.search("kowal", 10));
+        assertEquals(List.of(2L), patientSearchIndex.search("nowak", 10));
+    }
+
+    @Test
+    void rebuild_patientsInDatabase_replacesIndex() {
+        // Given
+        when(patientRepository.streamSearchTerms()).thenReturn(Stream.of(new PatientSearchTerms(9L, "Ewa", "Kowalczyk", "QQQ111222", null)));
+
+        // When
+        patientSearchIndex.rebuild();
+
+        // Then
+        assertEquals(List.of(9L), patientSearchIndex.search("kowal", 10));
+    }
+
+    @Test
+    void afterSingletonsInstantiated_buildsIndexBeforeTraffic() {
+        // Given
+        when(patientRepository.streamSearchTerms()).thenReturn(Stream.of(new PatientSearchTerms(9L, "Ewa", "Kowalczyk", "QQQ111222", null)));
+
+        // When
+        patientSearchIndex.afterSingletonsInstantiated();
+
+        // Then
+        assertEquals(List.of(9L), patientSearchIndex.search("ewa", 10));
+    }
+
+    private Patient createPatient(Long id, String firstName, String lastName, String idCardNo, String phoneNumber) {
+        return Patient.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .idCardNo(idCardNo)
+                .phoneNumber(phoneNumber)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.medicalclinic.index;
+
+import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.repository.VisitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class VisitIntervalIndexTest {
+    private static final LocalDateTime DAY = LocalDate.now().plusDays(1).atStartOfDay();
+
+    private VisitRepository visitRepository;
+    private VisitIntervalIndex visitIntervalIndex;
+
+    @BeforeEach
+    void setUp() {
+        this.visitRepository = Mockito.mock(VisitRepository.class);
+        this.visitIntervalIndex = new VisitIntervalIndex(visitRepository, true);
+    }
+
+    @Test
+    void isFree_overlappingVisitLoaded_returnsFalse() {
+        // Given
+        when(visitRepository.findByDoctorIdAndEndTimeAfter(eq(1L), any()))
+                .thenReturn(List.of(createVisit(DAY.withHour(10), DAY.withHour(11))));
+
+        // When
+        boolean result = visitIntervalIndex.isFree(1L, DAY.withHour(10).withMinute(30), DAY.withHour(12));
+
+        // Then
+        assertFalse(result);
+    }
+
+    @Test
+    void add_intervalAlreadyEnded_droppedFromIndex() {
+        // Given
+        LocalDateTime start = LocalDateTime.now().minusHours(2);
+        visitIntervalIndex.add(1L, start, start.plusHours(1));
+
+        // When
+        boolean result = visitIntervalIndex.isFree(1L, start, start.plusHours(1));
+
+        // Then
+        assertTrue(result);
+    }
+
+    @Test
+    void isFree_adjacentVisits_returnsTrue() {
+        // Given
+        when(visitRepository.findByDoctorIdAndEndTimeAfter(eq(1L), any()))
+                .thenReturn(List.of(
+                        createVisit(DAY.withHour(9), DAY.withHour(10)),
+                        createVisit(DAY.withHour(11), DAY.withHour(12))));
+
+        // When
+        boolean result = visitIntervalIndex.isFree(1L, DAY.withHour(10), DAY.withHour(11));
+
+        // Then
+        assertTrue(result);
+    }
+
+    @Test
+    void add_visitAdded_slotTakenWithoutReloading() {
+        // Given
+        when(visitRepository.findByDoctorIdAndEndTimeAfter(eq(1L), any())).thenReturn(List.of());
+        visitIntervalIndex.add(1L, DAY.withHour(8), DAY.withHour(9));
+
+        // When
+        boolean result = visitIntervalIndex.isFree(1L, DAY.withHour(8).withMinute(45), DAY.withHour(9).withMinute(15));
+
+        // Then
+        assertFalse(result);
+        verify(visitRepository, times(1)).findByDoctorIdAndEndTimeAfter(eq(1L), any());
+    }
+
+    private Visit createVisit(LocalDateTime startTime, LocalDateTime endTime) {
+        return Visit.builder()
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+    }
+}
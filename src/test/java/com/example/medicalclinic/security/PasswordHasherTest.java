@@ -0,0 +1,111 @@
+package com.example.medicalclinic.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        this.passwordHasher = new PasswordHasher(5, 0, 1, 10, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void hash_rawPassword_hashedWithConfiguredCost() {
+        // When
+        String hash = passwordHasher.hash("password");
+
+        // Then
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(passwordHasher.matchesAsync("password", hash).join());
+        assertFalse(passwordHasher.matchesAsync("wrong", hash).join());
+        assertFalse(passwordHasher.needsRehash(hash));
+    }
+
+    @Test
+    void needsRehash_lowerCostOrPlainText_true() {
+        assertTrue(passwordHasher.needsRehash(new BCryptPasswordEncoder(4).encode("password")));
+        assertTrue(passwordHasher.needsRehash("password"));
+        assertFalse(passwordHasher.needsRehash(new BCryptPasswordEncoder(6).encode("password")));
+    }
+
+    @Test
+    void verify_plainTextPassword_upgradedToHash() {
+        // Given
+        AtomicReference<String> upgraded = new AtomicReference<>();
+
+        // When
+        boolean result = passwordHasher.verify("password", "password", upgraded::set).join();
+
+        // Then
+        assertTrue(result);
+        assertTrue(passwordHasher.matchesAsync("password", upgraded.get()).join());
+    }
+
+    @Test
+    void verify_wrongPassword_notUpgraded() {
+        // Given
+        AtomicReference<String> upgraded = new AtomicReference<>();
+
+        // When
+        boolean result = passwordHasher.verify("wrong", new BCryptPasswordEncoder(4).encode("password"), upgraded::set).join();
+
+        // Then
+        assertFalse(result);
+        assertNull(upgraded.get());
+    }
+
+    @Test
+    void hashAsync_queueFull_rejected() {
+        // Given
+        PasswordHasher slowHasher = new PasswordHasher(12, 0, 1, 1, 1);
+        slowHasher.hashAsync("first");
+        slowHasher.hashAsync("second");
+
+        // When
+        RejectedExecutionException exception = assertThrows(RejectedExecutionException.class, () -> slowHasher.hashAsync("third"));
+
+        // Then
+        assertEquals("Password hashing queue is full", exception.getMessage());
+        slowHasher.shutdown();
+    }
+
+    @Test
+    void hashAll_moreThanQueueCapacity_waitsForBulkPoolInsteadOfRejecting() {
+        // Given
+        PasswordHasher hasher = new PasswordHasher(4, 0, 1, 1, 1);
+        hasher.hashAsync("interactive");
+
+        // When
+        List<String> hashes = hasher.hashAll(Arrays.asList("a", "b", "c", "d", "e", null));
+
+        // Then
+        assertEquals(6, hashes.size());
+        assertTrue(new BCryptPasswordEncoder().matches("e", hashes.get(4)));
+        assertNull(hashes.get(5));
+        hasher.shutdown();
+    }
+
+    @Test
+    void calibrate_targetLatency_costWithinBounds() {
+        int cost = PasswordHasher.calibrate(250);
+
+        assertTrue(cost >= PasswordHasher.MIN_CALIBRATED_COST);
+        assertTrue(cost <= PasswordHasher.MAX_COST);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.config.CacheConfig;
+import com.example.medicalclinic.exception.VisitAlreadyBookedException;
+import com.example.medicalclinic.model.BookingRequest;
+import com.example.medicalclinic.model.dto.DoctorDTO;
+import com.example.medicalclinic.model.dto.VisitDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BookingQueueTest {
+    private VisitService visitService;
+    private ConcurrentMapCacheManager cacheManager;
+    private BookingQueue bookingQueue;
+
+    @BeforeEach
+    void setUp() {
+        this.visitService = Mockito.mock(VisitService.class);
+        this.cacheManager = new ConcurrentMapCacheManager(CacheConfig.DOCTOR_SCHEDULES);
+        this.bookingQueue = new BookingQueue(visitService, cacheManager, true, 3, 1000, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        bookingQueue.stop();
+    }
+
+    @Test
+    void submit_concurrentBookings_coalescedIntoOneBatch() {
+        // Given
+        LocalDateTime startTime = LocalDateTime.now().plusDays(1);
+        cacheManager.getCache(CacheConfig.DOCTOR_SCHEDULES).put("7:" + startTime.toLocalDate(), "schedule");
+        when(visitService.bookVisits(any())).thenReturn(List.of(
+                CompletableFuture.completedFuture(createVisitDto(1L, startTime)),
+                CompletableFuture.failedFuture(new VisitAlreadyBookedException("Visit is already booked")),
+                CompletableFuture.completedFuture(createVisitDto(2L, startTime))));
+        CompletableFuture<VisitDTO> first = bookingQueue.submit(1L, 10L);
+        CompletableFuture<VisitDTO> second = bookingQueue.submit(1L, 11L);
+        CompletableFuture<VisitDTO> third = bookingQueue.submit(2L, 12L);
+
+        // When
+        bookingQueue.start();
+
+        // Then
+        assertEquals(1L, first.join().getId());
+        CompletionException exception = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(VisitAlreadyBookedException.class, exception.getCause());
+        assertEquals(2L, third.join().getId());
+        verify(visitService, times(1)).bookVisits(List.of(
+                new BookingRequest(1L, 10L), new BookingRequest(1L, 11L), new BookingRequest(2L, 12L)));
+        assertNull(cacheManager.getCache(CacheConfig.DOCTOR_SCHEDULES).get("7:" + startTime.toLocalDate()));
+    }
+
+    @Test
+    void submit_batchFails_allCallersFailed() {
+        // Given
+        when(visitService.bookVisits(any())).thenThrow(new IllegalStateException("Database unavailable"));
+        CompletableFuture<VisitDTO> first = bookingQueue.submit(1L, 10L);
+        CompletableFuture<VisitDTO> second = bookingQueue.submit(2L, 11L);
+        CompletableFuture<VisitDTO> third = bookingQueue.submit(3L, 12L);
+
+        // When
+        bookingQueue.start();
+
+        // Then
+        for (CompletableFuture<VisitDTO> result : List.of(first, second, third)) {
+            CompletionException exception = assertThrows(CompletionException.class, result::join);
+            assertEquals("Database unavailable", exception.getCause().getMessage());
+        }
+    }
+
+    private VisitDTO createVisitDto(Long visitId, LocalDateTime startTime) {
+        return VisitDTO.builder()
+                .id(visitId)
+                .doctor(DoctorDTO.builder().id(7L).build())
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(15))
+                .build();
+    }
+}
@@ -2,14 +2,20 @@ package com.example.medicalclinic.service;
 
 import com.example.medicalclinic.exception.DoctorException;
 import com.example.medicalclinic.exception.FacilityException;
+import com.example.medicalclinic.exception.InvalidRequestException;
+import com.example.medicalclinic.index.DoctorFacilityIndex;
 import com.example.medicalclinic.mapper.DoctorMapper;
 import com.example.medicalclinic.model.CreateDoctorCommand;
 import com.example.medicalclinic.model.dto.DoctorDTO;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.SliceContentDTO;
 import com.example.medicalclinic.model.entity.Doctor;
 import com.example.medicalclinic.model.entity.Facility;
+import com.example.medicalclinic.model.projection.DoctorView;
 import com.example.medicalclinic.repository.DoctorRepository;
 import com.example.medicalclinic.repository.FacilityRepository;
+import com.example.medicalclinic.security.PasswordHasher;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,17 +25,24 @@ import org.mapstruct.factory.Mappers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,25 +51,40 @@ public class DoctorServiceTest {
     private FacilityRepository facilityRepository;
     private DoctorMapper doctorMapper;
     private DoctorService doctorService;
+    private PasswordHasher passwordHasher;
+    private ReferenceDataCacheEvictor referenceDataCacheEvictor;
+    private DoctorFacilityIndex doctorFacilityIndex;
 
     @BeforeEach
     void setUp() {
         this.doctorRepository = Mockito.mock(DoctorRepository.class);
         this.facilityRepository = Mockito.mock(FacilityRepository.class);
         this.doctorMapper = Mappers.getMapper(DoctorMapper.class);
-        this.doctorService = new DoctorService(doctorRepository, facilityRepository, doctorMapper);
+        this.passwordHasher = new PasswordHasher(4, 0, 1, 10, 1);
+        this.referenceDataCacheEvictor = Mockito.mock(ReferenceDataCacheEvictor.class);
+        this.doctorFacilityIndex = new DoctorFacilityIndex(doctorRepository);
+        this.doctorService = new DoctorService(doctorRepository, facilityRepository, doctorMapper, passwordHasher,
+                referenceDataCacheEvictor, doctorFacilityIndex, new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+                new TransactionExecutor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
     }
 
     @Test
     void getAllDoctors_DoctorsExist_DoctorsFound() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<Doctor> doctorList = List.of(
-                createDoctor(1L, "test@email.com", "password"),
-                createDoctor(2L, "test2@email.com", "password")
+        List<DoctorView> doctorList = List.of(
+                new DoctorView(1L, "test@email.com"),
+                new DoctorView(2L, "test2@email.com")
         );
-        Page<Doctor> page = new PageImpl(doctorList, pageable, 2L);
-        when(doctorRepository.findAll(pageable)).thenReturn(page);
+        Page<DoctorView> page = new PageImpl<>(doctorList, pageable, 2L);
+        when(doctorRepository.findAllProjectedBy(pageable)).thenReturn(page);
+        doctorFacilityIndex.link(1L, 4L);
+        doctorFacilityIndex.link(1L, 3L);
 
         // When
         PageableContentDTO<DoctorDTO> result = doctorService.getAllDoctors(pageable);
@@ -67,8 +95,57 @@ public class DoctorServiceTest {
         assertEquals(page.getContent().size(), result.content().size());
         assertEquals(1L, result.content().get(0).getId());
         assertEquals("test@email.com", result.content().get(0).getEmail());
+        assertEquals(List.of(3L, 4L), result.content().get(0).getFacilityIds());
         assertEquals(2L, result.content().get(1).getId());
         assertEquals("test2@email.com", result.content().get(1).getEmail());
+        assertEquals(List.of(), result.content().get(1).getFacilityIds());
+        verify(doctorRepository, never()).findAll(pageable);
+    }
+
+    @Test
+    void scrollDoctors_moreRowsThanSize_nextCursorReturned() {
+        // Given
+        List<Doctor> doctorList = List.of(
+                createDoctor(5L, "test5@email.com", "password"),
+                createDoctor(6L, "test6@email.com", "password"),
+                createDoctor(7L, "test7@email.com", "password")
+        );
+        when(doctorRepository.findByIdGreaterThan(4L, SliceContentDTO.keysetPage(2))).thenReturn(doctorList);
+
+        // When
+        SliceContentDTO<DoctorDTO> result = doctorService.scrollDoctors(SliceContentDTO.encodeCursor(4L), 2);
+
+        // Then
+        assertEquals(2, result.content().size());
+        assertEquals(5L, result.content().get(0).getId());
+        assertEquals(6L, result.content().get(1).getId());
+        assertTrue(result.hasNext());
+        assertEquals(6L, SliceContentDTO.decodeCursor(result.nextCursor()));
+    }
+
+    @Test
+    void scrollDoctors_lastSlice_noNextCursor() {
+        // Given
+        List<Doctor> doctorList = List.of(createDoctor(1L, "test@email.com", "password"));
+        when(doctorRepository.findByIdGreaterThan(0L, SliceContentDTO.keysetPage(2))).thenReturn(doctorList);
+
+        // When
+        SliceContentDTO<DoctorDTO> result = doctorService.scrollDoctors(null, 2);
+
+        // Then
+        assertEquals(1, result.content().size());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void scrollDoctors_invalidCursor_throwsException() {
+        // When
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> doctorService.scrollDoctors("not-a-cursor", 2));
+
+        // Then
+        assertEquals("Invalid cursor", exception.getMessage());
     }
 
     @Test
@@ -80,11 +157,33 @@ public class DoctorServiceTest {
         when(doctorRepository.save(any())).thenReturn(doctor);
 
         // When
-        DoctorDTO result = doctorService.addDoctor(command);
+        DoctorDTO result = doctorService.addDoctor(command).join();
 
         // Then
         assertEquals(doctor.getId(), result.getId());
         assertEquals(doctor.getEmail(), result.getEmail());
+        ArgumentCaptor<Doctor> captor = ArgumentCaptor.forClass(Doctor.class);
+        verify(doctorRepository).save(captor.capture());
+        assertNotEquals("password", captor.getValue().getPassword());
+        assertTrue(passwordHasher.matchesAsync("password", captor.getValue().getPassword()).join());
+    }
+
+    @Test
+    void addDoctor_transactionRunsOffTheHasherPool() {
+        // Given
+        CreateDoctorCommand command = createDoctorCommand("test@email.com", null);
+        AtomicReference<String> saveThread = new AtomicReference<>();
+        when(doctorRepository.findByEmail(command.email())).thenReturn(Optional.empty());
+        when(doctorRepository.save(any())).thenAnswer(invocation -> {
+            saveThread.set(Thread.currentThread().getName());
+            return createDoctor(1L, command.email(), null);
+        });
+
+        // When
+        doctorService.addDoctor(command).join();
+
+        // Then
+        assertTrue(saveThread.get().startsWith("tx-writer-"));
     }
 
     @Test
@@ -96,10 +195,27 @@ public class DoctorServiceTest {
         when(doctorRepository.findByEmail(command.email())).thenReturn(Optional.of(existing));
 
         // When
-        DoctorException exception = assertThrows(DoctorException.class, () -> doctorService.addDoctor(command));
+        CompletionException exception = assertThrows(CompletionException.class, () -> doctorService.addDoctor(command).join());
+
+        // Then
+        assertInstanceOf(DoctorException.class, exception.getCause());
+        assertEquals("Doctor with email: " + command.email() + " already exists", exception.getCause().getMessage());
+        verify(doctorRepository, never()).save(any());
+    }
+
+    @Test
+    void addDoctor_concurrentInsertWithSameEmail_throwsException() {
+        // Given
+        CreateDoctorCommand command = createDoctorCommand("test@email.com", "password");
+        when(doctorRepository.findByEmail(command.email())).thenReturn(Optional.empty());
+        when(doctorRepository.save(any())).thenThrow(new DataIntegrityViolationException("uk_doctor_email"));
+
+        // When
+        CompletionException exception = assertThrows(CompletionException.class, () -> doctorService.addDoctor(command).join());
 
         // Then
-        assertEquals("Doctor with email: " + command.email() + " already exists", exception.getMessage());
+        assertInstanceOf(DoctorException.class, exception.getCause());
+        assertEquals("Doctor with email: " + command.email() + " already exists", exception.getCause().getMessage());
     }
 
     @Test
@@ -114,10 +230,41 @@ public class DoctorServiceTest {
         when(doctorRepository.save(any())).thenReturn(savedDoctor);
 
         // When
-        DoctorDTO result = doctorService.editDoctorByEmail(email, command);
+        DoctorDTO result = doctorService.editDoctorByEmail(email, command).join();
 
         // Then
         assertEquals("new@email.com", result.getEmail());
+        assertTrue(passwordHasher.matchesAsync("newPassword", existingDoctor.getPassword()).join());
+    }
+
+    @Test
+    void verifyPassword_plainTextPassword_rehashedOnLogin() {
+        // Given
+        Doctor doctor = createDoctor(1L, "test@email.com", "password");
+        when(doctorRepository.findByEmail("test@email.com")).thenReturn(Optional.of(doctor));
+
+        // When
+        boolean result = doctorService.verifyPassword("test@email.com", "password").join();
+
+        // Then
+        assertTrue(result);
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(doctorRepository).replacePassword(eq(1L), eq("password"), captor.capture());
+        assertTrue(passwordHasher.matchesAsync("password", captor.getValue()).join());
+    }
+
+    @Test
+    void verifyPassword_wrongPassword_notRehashed() {
+        // Given
+        Doctor doctor = createDoctor(1L, "test@email.com", passwordHasher.hash("password"));
+        when(doctorRepository.findByEmail("test@email.com")).thenReturn(Optional.of(doctor));
+
+        // When
+        boolean result = doctorService.verifyPassword("test@email.com", "wrong").join();
+
+        // Then
+        assertFalse(result);
+        verify(doctorRepository, never()).replacePassword(any(), any(), any());
     }
 
     @Test
@@ -128,10 +275,11 @@ public class DoctorServiceTest {
         when(doctorRepository.findByEmail(email)).thenReturn(Optional.empty());
 
         // When
-        DoctorException exception = assertThrows(DoctorException.class, () -> doctorService.editDoctorByEmail(email, command));
+        CompletionException exception = assertThrows(CompletionException.class, () -> doctorService.editDoctorByEmail(email, command).join());
 
         // Then
-        assertEquals("Doctor doesnt exist", exception.getMessage());
+        assertInstanceOf(DoctorException.class, exception.getCause());
+        assertEquals("Doctor doesnt exist", exception.getCause().getMessage());
     }
 
     @Test
@@ -206,6 +354,9 @@ public class DoctorServiceTest {
 
         // Then
         assertTrue(result.getFacilityIds().contains(facilityId));
+        assertArrayEquals(new long[]{facilityId}, doctorFacilityIndex.facilityIdsOf(doctorId));
+        assertArrayEquals(new long[]{doctorId}, doctorFacilityIndex.doctorIdsOf(facilityId));
+        verify(referenceDataCacheEvictor).evictFacilityDoctors(List.of(facilityId));
     }
 
     @Test
@@ -250,11 +401,15 @@ public class DoctorServiceTest {
         doctor.getFacilities().add(facility);
         when(doctorRepository.save(doctor)).thenReturn(doctor);
 
+        doctorFacilityIndex.link(doctorId, facilityId);
+
         //When
         doctorService.removeFacilityFromDoctor(doctorId, facilityId);
 
         // Then
         assertFalse(doctor.getFacilities().contains(facility));
+        assertArrayEquals(new long[0], doctorFacilityIndex.facilityIdsOf(doctorId));
+        verify(referenceDataCacheEvictor).evictFacilityDoctors(List.of(facilityId));
     }
 
     @Test
@@ -0,0 +1,53 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class EntitySequenceTest {
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void saveAll_pooledSequenceAndSqlInsert_idsDoNotCollide() {
+        // Given
+        patientRepository.saveAll(createPatients(0, 3));
+
+        // When
+        jdbcTemplate.update("INSERT INTO PATIENT (email, password, idCardNo, firstName, lastName) VALUES ('sql@clinic.com', 'password', 'SQL', 'Sql', 'Patient')");
+        patientRepository.saveAll(createPatients(3, 6));
+
+        // Then
+        assertEquals(7, patientRepository.count());
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id) FROM PATIENT", Long.class));
+    }
+
+    private List<Patient> createPatients(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> Patient.builder()
+                        .email("patient" + i + "@clinic.com")
+                        .password("password")
+                        .idCardNo("ID" + i)
+                        .firstName("Patient")
+                        .lastName("No" + i)
+                        .build())
+                .toList();
+    }
+}
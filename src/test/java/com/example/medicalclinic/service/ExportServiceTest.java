@@ -0,0 +1,143 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.index.DoctorFacilityIndex;
+import com.example.medicalclinic.mapper.DoctorMapper;
+import com.example.medicalclinic.mapper.PatientMapper;
+import com.example.medicalclinic.mapper.VisitMapper;
+import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.repository.DoctorRepository;
+import com.example.medicalclinic.repository.PatientRepository;
+import com.example.medicalclinic.repository.VisitRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.collection.spi.PersistentSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ExportServiceTest {
+    private VisitRepository visitRepository;
+    private DoctorRepository doctorRepository;
+    private PatientRepository patientRepository;
+    private EntityManager entityManager;
+    private ObjectMapper objectMapper;
+    private DoctorFacilityIndex doctorFacilityIndex;
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        this.visitRepository = Mockito.mock(VisitRepository.class);
+        this.doctorRepository = Mockito.mock(DoctorRepository.class);
+        this.patientRepository = Mockito.mock(PatientRepository.class);
+        this.entityManager = Mockito.mock(EntityManager.class);
+        this.objectMapper = new ObjectMapper().findAndRegisterModules();
+        this.doctorFacilityIndex = new DoctorFacilityIndex(doctorRepository);
+        this.exportService = new ExportService(visitRepository, doctorRepository, patientRepository,
+                Mappers.getMapper(VisitMapper.class), Mappers.getMapper(DoctorMapper.class),
+                Mappers.getMapper(PatientMapper.class), doctorFacilityIndex, objectMapper, entityManager);
+    }
+
+    @Test
+    void exportPatients_patientsExist_oneJsonObjectPerLine() throws Exception {
+        // Given
+        when(patientRepository.streamAll()).thenReturn(Stream.of(createPatient(1L), createPatient(2L)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        exportService.exportPatients(outputStream);
+
+        // Then
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("patient1@email.com", first.get("email").asText());
+        assertNull(first.get("password"));
+        verify(entityManager, times(2)).detach(any(Patient.class));
+    }
+
+    @Test
+    void exportVisits_manyVisits_persistenceContextClearedPeriodically() throws Exception {
+        // Given
+        Doctor doctor = Doctor.builder().id(1L).email("doctor@email.com").facilities(new HashSet<>()).build();
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(8, 0);
+        when(visitRepository.streamAll()).thenReturn(IntStream.range(0, 1000)
+                .mapToObj(i -> Visit.builder()
+                        .id((long) i)
+                        .doctor(doctor)
+                        .startTime(startTime.plusMinutes(15L * i))
+                        .endTime(startTime.plusMinutes(15L * (i + 1)))
+                        .build()));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        exportService.exportVisits(outputStream);
+
+        // Then
+        assertEquals(1000, outputStream.toString(StandardCharsets.UTF_8).lines().count());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void exportVisits_doctorFacilitiesNotLoaded_facilityIdsReadFromIndex() throws Exception {
+        // Given
+        Doctor doctor = Doctor.builder().id(1L).email("doctor@email.com").facilities(new PersistentSet<>()).build();
+        doctorFacilityIndex.link(1L, 7L);
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(8, 0);
+        when(visitRepository.streamAll()).thenReturn(Stream.of(
+                Visit.builder().id(1L).doctor(doctor).startTime(startTime).endTime(startTime.plusMinutes(15)).build()));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        exportService.exportVisits(outputStream);
+
+        // Then
+        JsonNode visit = objectMapper.readTree(outputStream.toString(StandardCharsets.UTF_8).lines().findFirst().orElseThrow());
+        assertEquals(7L, visit.get("doctor").get("facilityIds").get(0).asLong());
+    }
+
+    @Test
+    void exportDoctors_noDoctors_emptyBody() throws Exception {
+        // Given
+        when(doctorRepository.streamAll()).thenReturn(Stream.empty());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        exportService.exportDoctors(outputStream);
+
+        // Then
+        assertEquals(0, outputStream.size());
+    }
+
+    private Patient createPatient(Long id) {
+        return Patient.builder()
+                .id(id)
+                .email("patient" + id + "@email.com")
+                .password("password")
+                .idCardNo("ID" + id)
+                .firstName("John")
+                .lastName("Doe")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
@@ -1,15 +1,24 @@
 package com.example.medicalclinic.service;
 
 import com.example.medicalclinic.exception.FacilityException;
+import com.example.medicalclinic.exception.InvalidRequestException;
+import com.example.medicalclinic.index.DoctorFacilityIndex;
+import com.example.medicalclinic.index.FacilityGeoIndex;
 import com.example.medicalclinic.mapper.FacilityMapper;
 import com.example.medicalclinic.model.CreateDoctorCommand;
 import com.example.medicalclinic.model.CreateFacilityCommand;
 import com.example.medicalclinic.model.dto.FacilityDTO;
+import com.example.medicalclinic.model.dto.NearbyFacilityDTO;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
 import com.example.medicalclinic.model.entity.Doctor;
 import com.example.medicalclinic.model.entity.Facility;
+import com.example.medicalclinic.model.projection.FacilityLocation;
+import com.example.medicalclinic.model.projection.FacilityView;
 import com.example.medicalclinic.repository.DoctorRepository;
 import com.example.medicalclinic.repository.FacilityRepository;
+import com.example.medicalclinic.security.PasswordHasher;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,15 +29,25 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,26 +55,44 @@ public class FacilityServiceTest {
     private FacilityRepository facilityRepository;
     private DoctorRepository doctorRepository;
     private FacilityMapper facilityMapper;
+    private EntityManager entityManager;
     private FacilityService facilityService;
+    private PasswordHasher passwordHasher;
+    private ReferenceDataCacheEvictor referenceDataCacheEvictor;
+    private DoctorFacilityIndex doctorFacilityIndex;
+    private FacilityGeoIndex facilityGeoIndex;
 
     @BeforeEach
     void setUp() {
         this.facilityRepository = Mockito.mock(FacilityRepository.class);
         this.doctorRepository = Mockito.mock(DoctorRepository.class);
         this.facilityMapper = Mappers.getMapper(FacilityMapper.class);
-        this.facilityService = new FacilityService(facilityRepository, doctorRepository, facilityMapper);
+        this.entityManager = Mockito.mock(EntityManager.class);
+        this.passwordHasher = new PasswordHasher(4, 0, 1, 100, 1);
+        this.referenceDataCacheEvictor = Mockito.mock(ReferenceDataCacheEvictor.class);
+        this.doctorFacilityIndex = new DoctorFacilityIndex(doctorRepository);
+        this.facilityGeoIndex = new FacilityGeoIndex(facilityRepository);
+        this.facilityService = new FacilityService(facilityRepository, doctorRepository, facilityMapper, entityManager, passwordHasher,
+                referenceDataCacheEvictor, doctorFacilityIndex, facilityGeoIndex, new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+                new TransactionExecutor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
     }
 
     @Test
     void getAllFacilities_FacilitiesExist_FacilitiesFound() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<Facility> facilityList = List.of(
-                createFacility(1L, "testName1"),
-                createFacility(2L, "testName2")
+        List<FacilityView> facilityList = List.of(
+                new FacilityView(1L, "testName1", "City", "00-001", "Street", "1", null, null),
+                new FacilityView(2L, "testName2", "City", "00-002", "Street", "2", 52.23, 21.01)
         );
-        Page<Facility> page = new PageImpl(facilityList, pageable, 2L);
-        when(facilityRepository.findAll(pageable)).thenReturn(page);
+        Page<FacilityView> page = new PageImpl<>(facilityList, pageable, 2L);
+        when(facilityRepository.findAllProjectedBy(pageable)).thenReturn(page);
+        doctorFacilityIndex.link(5L, 2L);
 
         // When
         PageableContentDTO<FacilityDTO> result = facilityService.getAllFacilities(pageable);
@@ -66,8 +103,10 @@ public class FacilityServiceTest {
         assertEquals(page.getContent().size(), result.content().size());
         assertEquals(1L, result.content().get(0).getId());
         assertEquals("testName1", result.content().get(0).getFacilityName());
+        assertEquals(Set.of(), result.content().get(0).getDoctorIds());
         assertEquals(2L, result.content().get(1).getId());
         assertEquals("testName2", result.content().get(1).getFacilityName());
+        assertEquals(Set.of(5L), result.content().get(1).getDoctorIds());
     }
 
     @Test
@@ -103,6 +142,7 @@ public class FacilityServiceTest {
         // Given
         String facilityName = "testName";
         Facility facility = createFacility(facilityName);
+        facility.getDoctors().add(Doctor.builder().id(5L).email("doctor@email.com").build());
         when(facilityRepository.findByFacilityName(facilityName)).thenReturn(Optional.of(facility));
 
         // When
@@ -110,6 +150,7 @@ public class FacilityServiceTest {
 
         // Then
         verify(facilityRepository).delete(facility);
+        verify(referenceDataCacheEvictor).evictDoctorFacilities(List.of(5L));
     }
 
     @Test
@@ -200,7 +241,7 @@ public class FacilityServiceTest {
         when(facilityRepository.saveAll(any())).thenReturn(List.of(facility1, facility2));
 
         // When
-        List<FacilityDTO> result = facilityService.saveFacilitiesWithDoctors(request);
+        List<FacilityDTO> result = facilityService.saveFacilitiesWithDoctors(request).join();
 
         // Then
         assertEquals(2, result.size());
@@ -214,12 +255,136 @@ public class FacilityServiceTest {
         List<CreateFacilityCommand> request = List.of();
 
         // When
-        List<FacilityDTO> result = facilityService.saveFacilitiesWithDoctors(request);
+        List<FacilityDTO> result = facilityService.saveFacilitiesWithDoctors(request).join();
 
         //Then
         assertEquals(0, result.size());
     }
 
+    @Test
+    void saveFacilitiesWithDoctors_sharedAndExistingDoctors_resolvedWithSetQueriesAndDeduplicated() {
+        // Given
+        CreateDoctorCommand sharedDoctor = CreateDoctorCommand.builder().email("shared@email.com").build();
+        CreateDoctorCommand existingDoctorCmd = CreateDoctorCommand.builder().email("existing@email.com").build();
+        List<CreateFacilityCommand> request = List.of(
+                CreateFacilityCommand.builder().facilityName("Clinic A").doctors(List.of(sharedDoctor, existingDoctorCmd)).build(),
+                CreateFacilityCommand.builder().facilityName("Clinic B").doctors(List.of(sharedDoctor)).build()
+        );
+        Doctor existingDoctor = Doctor.builder().id(5L).email("existing@email.com").facilities(new HashSet<>()).build();
+        Facility existingFacility = createFacility(7L, "Clinic B");
+        when(facilityRepository.findAllByFacilityNameIn(any())).thenReturn(List.of(existingFacility));
+        when(doctorRepository.findEmailsByEmailIn(any())).thenReturn(Set.of("existing@email.com"));
+        when(doctorRepository.findAllByEmailIn(any())).thenReturn(List.of(existingDoctor));
+        when(facilityRepository.saveAll(any())).thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<Facility>>getArgument(0)));
+
+        // When
+        List<FacilityDTO> result = facilityService.saveFacilitiesWithDoctors(request).join();
+
+        // Then
+        assertEquals(2, result.size());
+        Facility clinicA = existingDoctor.getFacilities().iterator().next();
+        Doctor shared = clinicA.getDoctors().stream()
+                .filter(doctor -> doctor.getEmail().equals("shared@email.com"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(Set.of(clinicA, existingFacility), shared.getFacilities());
+        assertTrue(existingFacility.getDoctors().contains(shared));
+        verify(facilityRepository, never()).findByFacilityName(anyString());
+        verify(doctorRepository, never()).findByEmail(anyString());
+        verify(doctorRepository, times(1)).findAllByEmailIn(Set.of("shared@email.com", "existing@email.com"));
+    }
+
+    @Test
+    void saveFacilitiesWithDoctors_manyFacilities_persistenceContextClearedPerChunk() {
+        // Given
+        List<CreateFacilityCommand> request = IntStream.range(0, 120)
+                .mapToObj(i -> CreateFacilityCommand.builder().facilityName("Clinic " + i).build())
+                .toList();
+        when(facilityRepository.saveAll(any())).thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<Facility>>getArgument(0)));
+
+        // When
+        List<FacilityDTO> result = facilityService.saveFacilitiesWithDoctors(request).join();
+
+        // Then
+        assertEquals(120, result.size());
+        verify(facilityRepository, times(3)).saveAll(any());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(doctorRepository, never()).findAllByEmailIn(any());
+    }
+
+    @Test
+    void saveFacilitiesWithDoctors_moreNewDoctorsThanHasherQueue_hashedPerChunk() {
+        // Given
+        List<CreateFacilityCommand> request = IntStream.range(0, 120)
+                .mapToObj(i -> CreateFacilityCommand.builder()
+                        .facilityName("Clinic " + i)
+                        .doctors(List.of(CreateDoctorCommand.builder().email("doctor" + i + "@email.com").password("password").build()))
+                        .build())
+                .toList();
+        List<Facility> saved = new ArrayList<>();
+        when(facilityRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Facility> facilities = new ArrayList<>(invocation.<Collection<Facility>>getArgument(0));
+            saved.addAll(facilities);
+            return facilities;
+        });
+
+        // When
+        List<FacilityDTO> result = facilityService.saveFacilitiesWithDoctors(request).join();
+
+        // Then
+        assertEquals(120, result.size());
+        verify(doctorRepository, times(3)).findEmailsByEmailIn(any());
+        assertTrue(saved.stream()
+                .flatMap(facility -> facility.getDoctors().stream())
+                .allMatch(doctor -> PasswordHasher.isHash(doctor.getPassword())));
+    }
+
+    @Test
+    void findNearby_facilitiesWithinRadius_nearestFirst() {
+        // Given
+        Facility near = createFacility(1L, "Near");
+        Facility nearer = createFacility(2L, "Nearer");
+        facilityGeoIndex.index(new FacilityLocation(1L, "00-001", 52.25, 21.0));
+        facilityGeoIndex.index(new FacilityLocation(2L, "00-002", 52.231, 21.0));
+        facilityGeoIndex.index(new FacilityLocation(3L, "30-001", 50.06, 19.94));
+        when(facilityRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(near, nearer));
+
+        // When
+        List<NearbyFacilityDTO> result = facilityService.findNearby(52.23, 21.0, 10, null, 20);
+
+        // Then
+        assertEquals(List.of("Nearer", "Near"), result.stream().map(facility -> facility.facility().getFacilityName()).toList());
+        assertTrue(result.get(0).distanceKm() < result.get(1).distanceKm());
+    }
+
+    @Test
+    void findNearby_noCoordinates_postcodePrefixUsed() {
+        // Given
+        Facility facility = createFacility(3L, "Krakow");
+        facilityGeoIndex.index(new FacilityLocation(3L, "30-001", null, null));
+        facilityGeoIndex.index(new FacilityLocation(4L, "00-001", null, null));
+        when(facilityRepository.findAllById(List.of(3L))).thenReturn(List.of(facility));
+
+        // When
+        List<NearbyFacilityDTO> result = facilityService.findNearby(null, null, 10, "30", 20);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals("Krakow", result.get(0).facility().getFacilityName());
+        assertNull(result.get(0).distanceKm());
+    }
+
+    @Test
+    void findNearby_noLocation_throwsException() {
+        // When
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> facilityService.findNearby(52.23, null, 10, null, 20));
+
+        // Then
+        assertEquals("Either lat and lon or postcode is required", exception.getMessage());
+    }
+
     private Facility createFacility(String facilityName) {
         return Facility.builder()
                 .facilityName(facilityName)
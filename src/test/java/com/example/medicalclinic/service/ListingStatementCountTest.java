@@ -0,0 +1,128 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.index.DoctorFacilityIndex;
+import com.example.medicalclinic.model.dto.DoctorDTO;
+import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Facility;
+import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.repository.DoctorRepository;
+import com.example.medicalclinic.repository.FacilityRepository;
+import com.example.medicalclinic.repository.VisitRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ListingStatementCountTest {
+    private static final int PAGE_SIZE = 30;
+    private static final long MAX_STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private FacilityService facilityService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private FacilityRepository facilityRepository;
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DoctorFacilityIndex doctorFacilityIndex;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Facility> facilities = IntStream.range(0, 3)
+                .mapToObj(i -> Facility.builder()
+                        .facilityName("Facility " + i)
+                        .city("City")
+                        .postcode("00-00" + i)
+                        .street("Street")
+                        .buildingNumber(String.valueOf(i))
+                        .doctors(new HashSet<>())
+                        .build())
+                .toList();
+        List<Doctor> doctors = doctorRepository.saveAll(IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> Doctor.builder()
+                        .email("doctor" + i + "@clinic.com")
+                        .password("password")
+                        .facilities(new HashSet<>(Set.of(facilities.get(i % 3), facilities.get((i + 1) % 3))))
+                        .build())
+                .toList());
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(8, 0);
+        visitRepository.saveAll(doctors.stream()
+                .map(doctor -> Visit.builder()
+                        .doctor(doctor)
+                        .startTime(startTime)
+                        .endTime(startTime.plusMinutes(15))
+                        .build())
+                .toList());
+        doctorFacilityIndex.rebuild();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        visitRepository.deleteAll();
+        doctorRepository.deleteAll();
+        facilityRepository.deleteAll();
+    }
+
+    @Test
+    void getAllDoctors_pageOfDoctors_facilitiesFetchedInOneBatch() {
+        // When
+        List<DoctorDTO> doctors = doctorService.getAllDoctors(PageRequest.of(0, PAGE_SIZE)).content();
+
+        // Then
+        assertEquals(PAGE_SIZE, doctors.size());
+        assertTrue(doctors.stream().allMatch(doctor -> doctor.getFacilityIds().size() == 2));
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Executed " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void getAllFacilities_pageOfFacilities_doctorsFetchedInOneBatch() {
+        // When
+        int size = facilityService.getAllFacilities(PageRequest.of(0, PAGE_SIZE)).content().size();
+
+        // Then
+        assertEquals(3, size);
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Executed " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void getVisits_pageOfVisits_doctorsJoinedAndFacilitiesBatched() {
+        // When
+        int size = visitService.getVisits(PageRequest.of(0, PAGE_SIZE)).content().content().size();
+
+        // Then
+        assertEquals(PAGE_SIZE, size);
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Executed " + statistics.getPrepareStatementCount() + " statements");
+    }
+}
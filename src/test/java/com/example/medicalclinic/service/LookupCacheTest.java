@@ -0,0 +1,141 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.config.CacheConfig;
+import com.example.medicalclinic.model.CreateDoctorCommand;
+import com.example.medicalclinic.model.dto.ScheduledVisitDTO;
+import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.repository.DoctorRepository;
+import com.example.medicalclinic.repository.PatientRepository;
+import com.example.medicalclinic.repository.VisitRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+public class LookupCacheTest {
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private CacheManager cacheManager;
+    @MockitoBean
+    private DoctorRepository doctorRepository;
+    @MockitoBean
+    private PatientRepository patientRepository;
+    @MockitoBean
+    private VisitRepository visitRepository;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void getDoctorByEmail_calledTwice_repositoryHitOnceAndStatsRecorded() {
+        // Given
+        Doctor doctor = createDoctor("doctor@email.com");
+        when(doctorRepository.findByEmail("doctor@email.com")).thenReturn(Optional.of(doctor));
+        long hitsBefore = nativeCache(CacheConfig.DOCTORS).stats().hitCount();
+
+        // When
+        doctorService.getDoctorByEmail("doctor@email.com");
+        doctorService.getDoctorByEmail("doctor@email.com");
+
+        // Then
+        verify(doctorRepository, times(1)).findByEmail("doctor@email.com");
+        assertEquals(hitsBefore + 1, nativeCache(CacheConfig.DOCTORS).stats().hitCount());
+    }
+
+    @Test
+    void editDoctorByEmail_emailRenamed_oldAndNewKeysEvicted() {
+        // Given
+        Doctor doctor = createDoctor("old@email.com");
+        when(doctorRepository.findByEmail("old@email.com")).thenReturn(Optional.of(doctor));
+        when(doctorRepository.save(any(Doctor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doctorService.getDoctorByEmail("old@email.com");
+        nativeCache(CacheConfig.DOCTORS).put("new@email.com", "stale");
+
+        // When
+        doctorService.editDoctorByEmail("old@email.com", new CreateDoctorCommand(null, "new@email.com", "password")).join();
+
+        // Then
+        assertEquals(0, nativeCache(CacheConfig.DOCTORS).estimatedSize());
+    }
+
+    @Test
+    void changePassword_patientCached_entryEvicted() {
+        // Given
+        Patient patient = Patient.builder().id(1L).email("patient@email.com").password("old").build();
+        when(patientRepository.findByEmail("patient@email.com")).thenReturn(Optional.of(patient));
+        patientService.getPatientByEmail("patient@email.com");
+
+        // When
+        patientService.changePassword("patient@email.com", "new").join();
+        patientService.getPatientByEmail("patient@email.com");
+
+        // Then
+        verify(patientRepository, times(3)).findByEmail("patient@email.com");
+    }
+
+    @Test
+    void getDoctorSchedule_visitBookedOnThatDay_scheduleEvicted() {
+        // Given
+        LocalDate date = LocalDate.now().plusDays(1);
+        Doctor doctor = createDoctor("doctor@email.com");
+        Patient patient = Patient.builder().id(2L).email("patient@email.com").build();
+        Visit visit = Visit.builder()
+                .id(3L)
+                .doctor(doctor)
+                .startTime(date.atTime(9, 0))
+                .endTime(date.atTime(9, 15))
+                .build();
+        when(visitRepository.findDoctorSchedule(any(), any(), any()))
+                .thenReturn(List.of(new ScheduledVisitDTO(3L, visit.getStartTime(), visit.getEndTime(), null, null)));
+        when(patientRepository.findById(2L)).thenReturn(Optional.of(patient));
+        when(visitRepository.assignPatientIfAvailable(3L, patient)).thenReturn(1);
+        when(visitRepository.findById(3L)).thenReturn(Optional.of(visit));
+
+        // When
+        visitService.getDoctorSchedule(1L, date);
+        visitService.getDoctorSchedule(1L, date);
+        visitService.bookVisit(3L, 2L);
+        visitService.getDoctorSchedule(1L, date);
+
+        // Then
+        verify(visitRepository, times(2)).findDoctorSchedule(any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache(String name) {
+        return (Cache<Object, Object>) cacheManager.getCache(name).getNativeCache();
+    }
+
+    private Doctor createDoctor(String email) {
+        return Doctor.builder()
+                .id(1L)
+                .email(email)
+                .password("password")
+                .facilities(new HashSet<>())
+                .build();
+    }
+}
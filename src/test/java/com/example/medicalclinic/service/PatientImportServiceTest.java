@@ -0,0 +1,172 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.exception.InvalidRequestException;
+import com.example.medicalclinic.index.PatientSearchIndex;
+import com.example.medicalclinic.model.dto.PatientImportDTO;
+import com.example.medicalclinic.model.dto.RejectedRowDTO;
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.repository.PatientRepository;
+import com.example.medicalclinic.security.PasswordHasher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PatientImportServiceTest {
+    private PatientRepository patientRepository;
+    private PasswordHasher passwordHasher;
+    private PatientImportService patientImportService;
+
+    @BeforeEach
+    void setUp() {
+        this.patientRepository = Mockito.mock(PatientRepository.class);
+        this.passwordHasher = new PasswordHasher(4, 0, 1, 100, 1);
+        this.patientImportService = new PatientImportService(patientRepository, Mockito.mock(PatientSearchIndex.class),
+                passwordHasher, new ObjectMapper().findAndRegisterModules(), Mockito.mock(PlatformTransactionManager.class), 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void importCsv_mixedRows_validRowsInsertedInChunksAndRejectionsReported() {
+        // Given
+        when(patientRepository.findEmailsByEmailIn(any())).thenReturn(Set.of("taken@email.com"));
+        String csv = """
+                email,password,idCardNo,firstName,lastName,phoneNumber,birthday
+                jan@email.com,secret,ID1,Jan,Kowalski,123,1990-01-01
+                "anna@email.com",secret,ID2,"Anna, Maria",Nowak,,
+                jan@email.com,secret,ID3,Jan,Duplicate,,
+                taken@email.com,secret,ID4,Taken,Patient,,
+
+                piotr@email.com,secret,ID5,Piotr,Wisniewski,,not-a-date
+                ewa@email.com,,ID6,Ewa,Lewandowska,,
+                adam@email.com,secret,ID7,Adam,Zielinski,,
+                """;
+
+        // When
+        PatientImportDTO result = patientImportService.importCsv(stream(csv));
+
+        // Then
+        assertEquals(3, result.importedCount());
+        assertEquals(4, result.rejectedCount());
+        assertEquals(List.of(
+                new RejectedRowDTO(4, "Duplicate email in file: jan@email.com"),
+                new RejectedRowDTO(5, "Patient with email: taken@email.com already exists"),
+                new RejectedRowDTO(7, "Invalid birthday: not-a-date"),
+                new RejectedRowDTO(8, "Missing password")), result.rejectedRows());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Patient>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(patientRepository, times(2)).insertPatients(inserted.capture());
+        List<Patient> firstChunk = inserted.getAllValues().get(0);
+        assertEquals("Anna, Maria", firstChunk.get(1).getFirstName());
+        assertEquals(LocalDate.of(1990, 1, 1), firstChunk.get(0).getBirthday());
+        assertTrue(passwordHasher.matchesAsync("secret", firstChunk.get(0).getPassword()).join());
+        assertEquals(List.of("adam@email.com"), inserted.getAllValues().get(1).stream().map(Patient::getEmail).toList());
+    }
+
+    @Test
+    void importCsv_preHashedPassword_storedWithoutRehashing() {
+        // Given
+        String hash = passwordHasher.hash("secret");
+        String csv = "email,password,idCardNo,firstName,lastName\n"
+                + "jan@email.com," + hash + ",ID1,Jan,Kowalski\n";
+        PasswordHasher idleHasher = Mockito.mock(PasswordHasher.class);
+        PatientImportService service = new PatientImportService(patientRepository, Mockito.mock(PatientSearchIndex.class),
+                idleHasher, new ObjectMapper(), Mockito.mock(PlatformTransactionManager.class), 2, 10);
+
+        // When
+        PatientImportDTO result = service.importCsv(stream(csv));
+
+        // Then
+        assertEquals(1, result.importedCount());
+        verify(idleHasher, never()).hashAsync(any());
+        verify(idleHasher, never()).hashAll(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Patient>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(patientRepository).insertPatients(inserted.capture());
+        assertEquals(hash, inserted.getValue().get(0).getPassword());
+    }
+
+    @Test
+    void importCsv_interactiveHasherSaturated_chunksHashedOnBulkPool() {
+        // Given
+        PasswordHasher saturatedHasher = Mockito.mock(PasswordHasher.class);
+        when(saturatedHasher.hashAsync(any())).thenThrow(new RejectedExecutionException("Password hashing queue is full"));
+        when(saturatedHasher.hashAll(any())).thenReturn(List.of("hash1", "hash2"), List.of("hash3", "hash4"));
+        PatientImportService service = new PatientImportService(patientRepository, Mockito.mock(PatientSearchIndex.class),
+                saturatedHasher, new ObjectMapper(), Mockito.mock(PlatformTransactionManager.class), 2, 10);
+        String csv = """
+                email,password,idCardNo,firstName,lastName
+                jan@email.com,secret,ID1,Jan,Kowalski
+                anna@email.com,secret,ID2,Anna,Nowak
+                ewa@email.com,secret,ID3,Ewa,Lewandowska
+                adam@email.com,secret,ID4,Adam,Zielinski
+                """;
+
+        // When
+        PatientImportDTO result = service.importCsv(stream(csv));
+
+        // Then
+        assertEquals(4, result.importedCount());
+        assertEquals(List.of(), result.rejectedRows());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Patient>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(patientRepository, times(2)).insertPatients(inserted.capture());
+        assertEquals("hash4", inserted.getAllValues().get(1).get(1).getPassword());
+        verify(saturatedHasher, never()).hashAsync(any());
+    }
+
+    @Test
+    void importNdjson_malformedLine_rowRejected() {
+        // Given
+        String ndjson = """
+                {"email":"jan@email.com","password":"secret","idCardNo":"ID1","firstName":"Jan","lastName":"Kowalski","birthday":"1990-01-01"}
+                {"email":"broken@email.com",
+                """;
+
+        // When
+        PatientImportDTO result = patientImportService.importNdjson(stream(ndjson));
+
+        // Then
+        assertEquals(1, result.importedCount());
+        assertEquals(1, result.rejectedCount());
+        assertEquals(2, result.rejectedRows().get(0).line());
+        assertTrue(result.rejectedRows().get(0).reason().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void importCsv_missingColumns_throwsException() {
+        // When
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> patientImportService.importCsv(stream("email,firstName\n")));
+
+        // Then
+        assertEquals("CSV header is missing columns: idCardNo, lastName, password", exception.getMessage());
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,54 +1,75 @@
 package com.example.medicalclinic.service;
 
+import com.example.medicalclinic.exception.InvalidRequestException;
 import com.example.medicalclinic.exception.PatientException;
+import com.example.medicalclinic.index.PatientSearchIndex;
 import com.example.medicalclinic.mapper.PatientMapper;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
 import com.example.medicalclinic.model.dto.PatientDTO;
 import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.model.projection.PatientView;
 import com.example.medicalclinic.repository.PatientRepository;
+import com.example.medicalclinic.security.PasswordHasher;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class PatientServiceTest {
     private PatientRepository patientRepository;
     private PatientService patientService;
     private PatientMapper patientMapper;
+    private PatientSearchIndex patientSearchIndex;
+    private PasswordHasher passwordHasher;
 
     @BeforeEach
     void setUp() {
         this.patientRepository = Mockito.mock(PatientRepository.class);
         this.patientMapper = Mappers.getMapper(PatientMapper.class);
-        this.patientService = new PatientService(patientRepository, patientMapper);
+        this.patientSearchIndex = new PatientSearchIndex(patientRepository);
+        this.passwordHasher = new PasswordHasher(4, 0, 1, 10, 1);
+        this.patientService = new PatientService(patientRepository, patientMapper, patientSearchIndex, passwordHasher,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), new TransactionExecutor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
     }
 
     @Test
     void getAllPatients_PatientExist_PatientFound() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        List<Patient> patientList = List.of(
-                createPatient("123", "test@email.com"),
-                createPatient("321", "test2@email.com")
+        List<PatientView> patientList = List.of(
+                new PatientView(1L, "test@email.com", "123", "Jan", "Kowalski", null, null),
+                new PatientView(2L, "test2@email.com", "321", "Anna", "Nowak", null, null)
         );
-        Page<Patient> page = new PageImpl(patientList, pageable, 2L);
-        when(patientRepository.findAll(pageable)).thenReturn(page);
+        Page<PatientView> page = new PageImpl<>(patientList, pageable, 2L);
+        when(patientRepository.findAllProjectedBy(pageable)).thenReturn(page);
 
         // When
         PageableContentDTO<PatientDTO> result = patientService.getAllPatients(pageable);
@@ -59,6 +80,7 @@ public class PatientServiceTest {
         assertEquals(page.getContent().size(), result.content().size());
         assertEquals("123", result.content().get(0).getIdCardNo());
         assertEquals("test@email.com", result.content().get(0).getEmail());
+        assertEquals("Jan Kowalski", result.content().get(0).getFullName());
         assertEquals("321", result.content().get(1).getIdCardNo());
         assertEquals("test2@email.com", result.content().get(1).getEmail());
     }
@@ -73,7 +95,7 @@ public class PatientServiceTest {
         when(patientRepository.save(any())).thenReturn(currentPatient);
 
         // when
-        PatientDTO result = patientService.editPatientByEmail(email, newPatient);
+        PatientDTO result = patientService.editPatientByEmail(email, newPatient).join();
 
         //then
         assertEquals("nowy@email.com", result.getEmail());
@@ -88,10 +110,11 @@ public class PatientServiceTest {
         when(patientRepository.findByEmail(email)).thenReturn(Optional.empty());
 
         // When
-        PatientException exception = assertThrows(PatientException.class, () -> patientService.editPatientByEmail(email, patient));
+        CompletionException exception = assertThrows(CompletionException.class, () -> patientService.editPatientByEmail(email, patient).join());
 
         // Then
-        assertEquals("Patient doesnt exist", exception.getMessage());
+        assertInstanceOf(PatientException.class, exception.getCause());
+        assertEquals("Patient doesnt exist", exception.getCause().getMessage());
     }
 
     @Test
@@ -130,13 +153,52 @@ public class PatientServiceTest {
         Patient currentPatient = createPatient(1L, "test@email.com", "passwordBefore");
 
         when(patientRepository.findByEmail(email)).thenReturn(Optional.of(currentPatient));
-        when(patientRepository.save(any())).thenReturn(currentPatient);
+        when(patientRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
-        Patient result = patientService.changePassword(email, password);
+        PatientDTO result = patientService.changePassword(email, password).join();
 
         // Then
-        assertEquals("examplePassword", result.getPassword());
+        assertEquals(email, result.getEmail());
+        ArgumentCaptor<Patient> captor = ArgumentCaptor.forClass(Patient.class);
+        verify(patientRepository).saveAndFlush(captor.capture());
+        assertNotEquals(password, captor.getValue().getPassword());
+        assertTrue(passwordHasher.matchesAsync(password, captor.getValue().getPassword()).join());
+    }
+
+    @Test
+    void verifyPassword_lowerCostHash_rehashedOnLogin() {
+        // Given
+        String email = "test@email.com";
+        String oldHash = new BCryptPasswordEncoder(4).encode("password");
+        PasswordHasher strongerHasher = new PasswordHasher(5, 0, 1, 10, 1);
+        PatientService service = new PatientService(patientRepository, patientMapper, patientSearchIndex, strongerHasher,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), new TransactionExecutor());
+        when(patientRepository.findByEmail(email)).thenReturn(Optional.of(createPatient(1L, email, oldHash)));
+
+        // When
+        boolean result = service.verifyPassword(email, "password").join();
+
+        // Then
+        assertTrue(result);
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(patientRepository).replacePassword(eq(1L), eq(oldHash), captor.capture());
+        assertTrue(captor.getValue().startsWith("$2a$05$"));
+        strongerHasher.shutdown();
+    }
+
+    @Test
+    void verifyPassword_currentCostHash_notRehashed() {
+        // Given
+        String email = "test@email.com";
+        when(patientRepository.findByEmail(email)).thenReturn(Optional.of(createPatient(1L, email, passwordHasher.hash("password"))));
+
+        // When
+        boolean result = patientService.verifyPassword(email, "password").join();
+
+        // Then
+        assertTrue(result);
+        verify(patientRepository, never()).replacePassword(any(), any(), any());
     }
 
     @Test
@@ -147,10 +209,11 @@ public class PatientServiceTest {
         when(patientRepository.findByEmail(email)).thenReturn(Optional.empty());
 
         // When
-        PatientException exception = assertThrows(PatientException.class, () -> patientService.changePassword(email, password));
+        CompletionException exception = assertThrows(CompletionException.class, () -> patientService.changePassword(email, password).join());
 
         // Then
-        assertEquals("Patient doesnt exist", exception.getMessage());
+        assertInstanceOf(PatientException.class, exception.getCause());
+        assertEquals("Patient doesnt exist", exception.getCause().getMessage());
     }
 
     @Test
@@ -163,7 +226,7 @@ public class PatientServiceTest {
         when(patientRepository.save(any())).thenReturn(savedPatient);
 
         // When
-        PatientDTO result = patientService.addPatient(patient);
+        PatientDTO result = patientService.addPatient(patient).join();
 
         // Then
         assertEquals(savedPatient.getId(), result.getId());
@@ -181,10 +244,11 @@ public class PatientServiceTest {
         when(patientRepository.findByEmail(patient.getEmail())).thenReturn(Optional.of(Patient.builder().build()));
 
         // When
-        PatientException exception = assertThrows(PatientException.class, () -> patientService.addPatient(patient));
+        CompletionException exception = assertThrows(CompletionException.class, () -> patientService.addPatient(patient).join());
 
         // Then
-        assertEquals("Patient with email: " + patient.getEmail() + " already exists", exception.getMessage());
+        assertInstanceOf(PatientException.class, exception.getCause());
+        assertEquals("Patient with email: " + patient.getEmail() + " already exists", exception.getCause().getMessage());
     }
 
     @Test
@@ -194,10 +258,11 @@ public class PatientServiceTest {
         when(patientRepository.findByIdCardNo(patient.getIdCardNo())).thenReturn(Optional.of(Patient.builder().build()));
 
         // When
-        PatientException exception = assertThrows(PatientException.class, () -> patientService.addPatient(patient));
+        CompletionException exception = assertThrows(CompletionException.class, () -> patientService.addPatient(patient).join());
 
         // Then
-        assertEquals("Patient with IdCardNo: " + patient.getIdCardNo() + " already exists", exception.getMessage());
+        assertInstanceOf(PatientException.class, exception.getCause());
+        assertEquals("Patient with IdCardNo: " + patient.getIdCardNo() + " already exists", exception.getCause().getMessage());
     }
 
     @Test
@@ -227,6 +292,49 @@ public class PatientServiceTest {
         assertEquals("Patient doesnt exist", exception.getMessage());
     }
 
+    @Test
+    void searchPatients_addedThenEdited_searchReflectsChanges() {
+        // Given
+        Patient patient = createPatient(1L, "Jan", "Kowalski", "jan@email.com", "ABC123456", "600-100-200", LocalDate.of(1990, 1, 1));
+        when(patientRepository.findByEmail("jan@email.com")).thenReturn(Optional.empty(), Optional.of(patient));
+        when(patientRepository.findByIdCardNo(patient.getIdCardNo())).thenReturn(Optional.empty());
+        when(patientRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(patientRepository.findAllById(List.of(1L))).thenReturn(List.of(patient));
+        patientService.addPatient(patient).join();
+
+        // When
+        patientService.editPatientByEmail("jan@email.com", Patient.builder().lastName("Nowak").build()).join();
+
+        // Then
+        assertEquals(List.of(), patientService.searchPatients("kowal", 10));
+        assertEquals("Jan Nowak", patientService.searchPatients("now", 10).get(0).getFullName());
+        assertEquals(1L, patientService.searchPatients("600100", 10).get(0).getId());
+    }
+
+    @Test
+    void searchPatients_removedPatient_notFound() {
+        // Given
+        Patient patient = createPatient(1L, "Jan", "Kowalski", "jan@email.com", "ABC123456");
+        patientSearchIndex.index(patient);
+        when(patientRepository.findByEmail("jan@email.com")).thenReturn(Optional.of(patient));
+
+        // When
+        patientService.removePatientByEmail("jan@email.com");
+
+        // Then
+        assertEquals(List.of(), patientService.searchPatients("abc", 10));
+    }
+
+    @Test
+    void searchPatients_limitTooLarge_throwsException() {
+        // When
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> patientService.searchPatients("jan", 500));
+
+        // Then
+        assertEquals("Limit must be between 1 and 50", exception.getMessage());
+    }
+
     private Patient createPatient(String idCardNo, String email) {
         return Patient.builder()
                 .idCardNo(idCardNo)
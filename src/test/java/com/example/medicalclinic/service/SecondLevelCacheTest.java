@@ -0,0 +1,108 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Facility;
+import com.example.medicalclinic.repository.DoctorRepository;
+import com.example.medicalclinic.repository.FacilityRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class SecondLevelCacheTest {
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private FacilityRepository facilityRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private Long doctorId;
+    private Long facilityId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        Facility facility = facilityRepository.save(Facility.builder()
+                .facilityName("Cached facility")
+                .city("City")
+                .postcode("00-001")
+                .street("Street")
+                .buildingNumber("1")
+                .doctors(new HashSet<>())
+                .build());
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .email("cached@clinic.com")
+                .password("password")
+                .facilities(new HashSet<>())
+                .build());
+        facilityId = facility.getId();
+        doctorId = doctor.getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+        facilityRepository.deleteAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void assignAndRemove_cachedFacilityDoctors_evicted() {
+        // Given
+        assertTrue(facilityDoctorIds().isEmpty());
+        facilityDoctorIds();
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+
+        // When
+        doctorService.assignDoctorToFacility(doctorId, facilityId);
+
+        // Then
+        assertEquals(Set.of(doctorId), facilityDoctorIds());
+
+        // When
+        doctorService.removeFacilityFromDoctor(doctorId, facilityId);
+
+        // Then
+        assertTrue(facilityDoctorIds().isEmpty());
+    }
+
+    @Test
+    void findByFacilityName_repeatedLookup_servedFromQueryCache() {
+        // When
+        facilityRepository.findByFacilityName("Cached facility");
+        facilityRepository.findByFacilityName("Cached facility");
+
+        // Then
+        assertTrue(statistics.getQueryCacheHitCount() >= 1);
+    }
+
+    private Set<Long> facilityDoctorIds() {
+        return transaction.execute(status -> facilityRepository.findById(facilityId).orElseThrow()
+                .getDoctors().stream()
+                .map(Doctor::getId)
+                .collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.exception.VisitAlreadyBookedException;
+import com.example.medicalclinic.model.BookingRequest;
+import com.example.medicalclinic.model.dto.VisitDTO;
+import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.repository.DoctorRepository;
+import com.example.medicalclinic.repository.PatientRepository;
+import com.example.medicalclinic.repository.VisitBookingRepositoryImpl;
+import com.example.medicalclinic.repository.VisitRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+public class VisitBookingBatchTest {
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> visitIds;
+    private List<Long> patientIds;
+
+    @BeforeEach
+    void setUp() {
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .email("batch@clinic.com")
+                .password("password")
+                .facilities(new HashSet<>())
+                .build());
+        patientIds = List.of(
+                patientRepository.save(createPatient(0)).getId(),
+                patientRepository.save(createPatient(1)).getId(),
+                patientRepository.save(createPatient(2)).getId());
+        LocalDateTime day = LocalDate.now().plusDays(1).atTime(8, 0);
+        visitIds = List.of(
+                visitRepository.save(createVisit(doctor, day, null)).getId(),
+                visitRepository.save(createVisit(doctor, day.plusMinutes(15), null)).getId(),
+                visitRepository.save(createVisit(doctor, day.plusMinutes(30),
+                        patientRepository.findById(patientIds.get(0)).orElseThrow())).getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        visitRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void bookVisits_duplicateAndAlreadyBookedIds_onlyFreeVisitsAssigned() {
+        // When
+        List<CompletableFuture<VisitDTO>> results = visitService.bookVisits(List.of(
+                new BookingRequest(visitIds.get(0), patientIds.get(1)),
+                new BookingRequest(visitIds.get(0), patientIds.get(2)),
+                new BookingRequest(visitIds.get(1), patientIds.get(2)),
+                new BookingRequest(visitIds.get(2), patientIds.get(1))));
+
+        // Then
+        assertEquals(visitIds.get(0), results.get(0).join().getId());
+        assertInstanceOf(VisitAlreadyBookedException.class, assertThrows(CompletionException.class, results.get(1)::join).getCause());
+        assertEquals(visitIds.get(1), results.get(2).join().getId());
+        assertInstanceOf(VisitAlreadyBookedException.class, assertThrows(CompletionException.class, results.get(3)::join).getCause());
+        assertEquals(patientIds.get(1), patientIdOf(visitIds.get(0)));
+        assertEquals(patientIds.get(2), patientIdOf(visitIds.get(1)));
+        assertEquals(patientIds.get(0), patientIdOf(visitIds.get(2)));
+    }
+
+    @Test
+    void assignPatients_driverReportsSuccessNoInfo_resolvedFromStoredRows() {
+        // Given
+        JdbcTemplate noInfoJdbcTemplate = Mockito.spy(jdbcTemplate);
+        doAnswer(invocation -> {
+            int[] updateCounts = (int[]) invocation.callRealMethod();
+            Arrays.fill(updateCounts, Statement.SUCCESS_NO_INFO);
+            return updateCounts;
+        }).when(noInfoJdbcTemplate).batchUpdate(anyString(), anyList());
+        VisitBookingRepositoryImpl repository = new VisitBookingRepositoryImpl(noInfoJdbcTemplate);
+
+        // When
+        int[] updateCounts = repository.assignPatients(List.of(
+                new BookingRequest(visitIds.get(0), patientIds.get(1)),
+                new BookingRequest(visitIds.get(2), patientIds.get(2))));
+
+        // Then
+        assertArrayEquals(new int[]{1, 0}, updateCounts);
+        assertEquals(patientIds.get(1), patientIdOf(visitIds.get(0)));
+    }
+
+    private Long patientIdOf(Long visitId) {
+        return jdbcTemplate.queryForObject("SELECT patient_id FROM VISIT WHERE id = ?", Long.class, visitId);
+    }
+
+    private static Visit createVisit(Doctor doctor, LocalDateTime startTime, Patient patient) {
+        return Visit.builder()
+                .doctor(doctor)
+                .patient(patient)
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(15))
+                .build();
+    }
+
+    private static Patient createPatient(int index) {
+        return Patient.builder()
+                .email("batch" + index + "@clinic.com")
+                .password("password")
+                .idCardNo("BATCH" + index)
+                .firstName("Batch")
+                .lastName("No" + index)
+                .build();
+    }
+}
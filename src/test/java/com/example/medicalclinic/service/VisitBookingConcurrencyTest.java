@@ -0,0 +1,118 @@
+package com.example.medicalclinic.service;
+
+import com.example.medicalclinic.exception.VisitAlreadyBookedException;
+import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Patient;
+import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.repository.DoctorRepository;
+import com.example.medicalclinic.repository.PatientRepository;
+import com.example.medicalclinic.repository.VisitRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class VisitBookingConcurrencyTest {
+    private static final int BOOKERS = 64;
+    private static final int SLOTS = 8;
+
+    @Autowired
+    private VisitService visitService;
+    @Autowired
+    private VisitRepository visitRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @AfterEach
+    void tearDown() {
+        visitRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+    }
+
+    @Test
+    void bookVisit_concurrentBookers_exactlyOneWinnerPerSlot() throws Exception {
+        // Given
+        Doctor doctor = doctorRepository.save(Doctor.builder()
+                .email("stress@clinic.com")
+                .password("password")
+                .facilities(new HashSet<>())
+                .build());
+        LocalDateTime day = LocalDate.now().plusDays(1).atTime(8, 0);
+        List<Long> visitIds = IntStream.range(0, SLOTS)
+                .mapToObj(i -> visitRepository.save(Visit.builder()
+                        .doctor(doctor)
+                        .startTime(day.plusMinutes(15L * i))
+                        .endTime(day.plusMinutes(15L * (i + 1)))
+                        .build()).getId())
+                .toList();
+        List<Long> patientIds = IntStream.range(0, BOOKERS)
+                .mapToObj(i -> patientRepository.save(createPatient(i)).getId())
+                .toList();
+
+        Map<Long, List<Long>> winnersByVisit = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKERS);
+
+        // When
+        List<Future<?>> bookers = new ArrayList<>();
+        for (Long patientId : patientIds) {
+            List<Long> order = new ArrayList<>(visitIds);
+            Collections.shuffle(order);
+            bookers.add(executor.submit(() -> {
+                start.await();
+                for (Long visitId : order) {
+                    try {
+                        visitService.bookVisit(visitId, patientId);
+                        winnersByVisit.computeIfAbsent(visitId, id -> new CopyOnWriteArrayList<>()).add(patientId);
+                    } catch (VisitAlreadyBookedException ignored) {
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> booker : bookers) {
+            booker.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        for (Long visitId : visitIds) {
+            List<Long> winners = winnersByVisit.getOrDefault(visitId, List.of());
+            assertEquals(1, winners.size());
+            assertEquals(winners.get(0), visitRepository.findById(visitId).orElseThrow().getPatient().getId());
+        }
+    }
+
+    private Patient createPatient(int index) {
+        return Patient.builder()
+                .email("booker" + index + "@clinic.com")
+                .password("password")
+                .idCardNo("BOOKER" + index)
+                .firstName("Booker")
+                .lastName("No" + index)
+                .build();
+    }
+}
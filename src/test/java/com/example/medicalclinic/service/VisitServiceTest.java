@@ -1,35 +1,67 @@
 package com.example.medicalclinic.service;
 
 import com.example.medicalclinic.exception.DoctorException;
+import com.example.medicalclinic.exception.PatientException;
+import com.example.medicalclinic.exception.VisitAlreadyBookedException;
 import com.example.medicalclinic.exception.VisitException;
+import com.example.medicalclinic.index.AvailabilityIndex;
+import com.example.medicalclinic.index.VisitIntervalIndex;
 import com.example.medicalclinic.mapper.VisitMapper;
+import com.example.medicalclinic.metrics.VisitMetrics;
+import com.example.medicalclinic.model.BookingRequest;
+import com.example.medicalclinic.model.CreateVisitScheduleCommand;
+import com.example.medicalclinic.model.ResourceVersion;
+import com.example.medicalclinic.model.Versioned;
+import com.example.medicalclinic.model.dto.DoctorScheduleDTO;
 import com.example.medicalclinic.model.dto.PageableContentDTO;
+import com.example.medicalclinic.model.dto.ScheduledVisitDTO;
 import com.example.medicalclinic.model.dto.VisitDTO;
+import com.example.medicalclinic.model.dto.VisitScheduleDTO;
 import com.example.medicalclinic.model.entity.Doctor;
+import com.example.medicalclinic.model.entity.Facility;
 import com.example.medicalclinic.model.entity.Patient;
 import com.example.medicalclinic.model.entity.Visit;
+import com.example.medicalclinic.model.projection.UpcomingVisitCounts;
+import com.example.medicalclinic.model.projection.VersionStamp;
 import com.example.medicalclinic.repository.DoctorRepository;
+import com.example.medicalclinic.repository.FacilityRepository;
 import com.example.medicalclinic.repository.PatientRepository;
 import com.example.medicalclinic.repository.VisitRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +70,9 @@ public class VisitServiceTest {
     private VisitMapper visitMapper;
     private DoctorRepository doctorRepository;
     private PatientRepository patientRepository;
+    private FacilityRepository facilityRepository;
+    private AvailabilityIndex availabilityIndex;
+    private SimpleMeterRegistry meterRegistry;
     private VisitService visitService;
 
     @BeforeEach
@@ -45,20 +80,24 @@ public class VisitServiceTest {
         this.visitRepository = Mockito.mock(VisitRepository.class);
         this.doctorRepository = Mockito.mock(DoctorRepository.class);
         this.patientRepository = Mockito.mock(PatientRepository.class);
+        this.facilityRepository = Mockito.mock(FacilityRepository.class);
+        this.availabilityIndex = new AvailabilityIndex(visitRepository);
         this.visitMapper = Mappers.getMapper(VisitMapper.class);
-        this.visitService = new VisitService(visitRepository, visitMapper, doctorRepository, patientRepository);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.visitService = new VisitService(visitRepository, visitMapper, doctorRepository, patientRepository, facilityRepository,
+                new VisitIntervalIndex(visitRepository, false), availabilityIndex, new VisitMetrics(meterRegistry, visitRepository, 60_000));
     }
 
     @Test
     void createVisit_visitExist_VisitCreated() {
         // Given
         Long doctorId = 1L;
-        LocalDateTime startTime = LocalDateTime.now().plusMinutes(30).withMinute(0);
-        LocalDateTime endTime = LocalDateTime.now().plusMinutes(60).withMinute(0);
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(13, 0);
+        LocalDateTime endTime = LocalDate.now().plusDays(1).atTime(14, 0);
 
         Doctor doctor = createDoctor(doctorId);
         when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
-        when(visitRepository.findByDoctorId(doctorId)).thenReturn(List.of());
+        when(visitRepository.findByDoctorIdAndStartTimeBeforeAndEndTimeAfter(doctorId, endTime, startTime)).thenReturn(List.of());
 
         Visit visit = createVisit(doctor, startTime, endTime);
         when(visitRepository.save(any())).thenReturn(visit);
@@ -76,8 +115,8 @@ public class VisitServiceTest {
     void createVisit_doctorNotFound_throwsException() {
         // Given
         Long doctorId = 1L;
-        LocalDateTime startTime = LocalDateTime.of(2025, 5, 12, 13, 0);
-        LocalDateTime endTime = LocalDateTime.of(2025, 5, 12, 14, 0);
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(13, 0);
+        LocalDateTime endTime = LocalDate.now().plusDays(1).atTime(14, 0);
         when(doctorRepository.findById(doctorId)).thenReturn(Optional.empty());
 
         // When
@@ -91,19 +130,20 @@ public class VisitServiceTest {
     void createVisit_conflictingVisit_throwsException() {
         // Given
         Long doctorId = 1L;
-        LocalDateTime startTime = LocalDateTime.of(2025, 5, 12, 13, 0);
-        LocalDateTime endTime = LocalDateTime.of(2025, 5, 12, 14, 0);
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(13, 0);
+        LocalDateTime endTime = LocalDate.now().plusDays(1).atTime(14, 0);
         Doctor doctor = createDoctor(doctorId);
         when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
 
         Visit conflictingVisit = createVisit(doctor, startTime.minusMinutes(30), endTime.plusMinutes(30));
-        when(visitRepository.findByDoctorId(doctorId)).thenReturn(List.of(conflictingVisit));
+        when(visitRepository.findByDoctorIdAndStartTimeBeforeAndEndTimeAfter(doctorId, endTime, startTime)).thenReturn(List.of(conflictingVisit));
 
         // When
         VisitException exception = assertThrows(VisitException.class, () -> visitService.createVisit(doctorId, startTime, endTime));
 
         // Then
         assertEquals("Doctor has a visit at this time", exception.getMessage());
+        assertEquals(1.0, meterRegistry.counter("clinic.visits.slot.rejections", "reason", VisitMetrics.REJECTED_OVERLAP).count());
     }
 
     @Test
@@ -140,8 +180,8 @@ public class VisitServiceTest {
     void createVisit_notQuarterTime_throwsException() {
         // Given
         Long doctorId = 1L;
-        LocalDateTime startTime = LocalDateTime.now().plusMinutes(30).withMinute(17);
-        LocalDateTime endTime = LocalDateTime.now().plusMinutes(60).withMinute(32);
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(13, 17);
+        LocalDateTime endTime = LocalDate.now().plusDays(1).atTime(14, 32);
 
         // When
         VisitException exception = assertThrows(VisitException.class, () ->
@@ -151,27 +191,212 @@ public class VisitServiceTest {
         assertEquals("Visits must be in quarter (00, 15, 30, 45)", exception.getMessage());
     }
 
+    @Test
+    void createVisitSchedule_conflictingVisit_slotSkipped() {
+        // Given
+        Long doctorId = 1L;
+        LocalDate day = LocalDate.now().plusDays(1);
+        CreateVisitScheduleCommand command = CreateVisitScheduleCommand.builder()
+                .doctorId(doctorId)
+                .fromDate(day)
+                .toDate(day)
+                .daysOfWeek(EnumSet.of(day.getDayOfWeek()))
+                .workStart(LocalTime.of(8, 0))
+                .workEnd(LocalTime.of(10, 0))
+                .slotMinutes(30)
+                .build();
+        Doctor doctor = createDoctor(doctorId);
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(visitRepository.findByDoctorIdAndStartTimeBeforeAndEndTimeAfter(doctorId, day.plusDays(1).atStartOfDay(), day.atStartOfDay()))
+                .thenReturn(List.of(createVisit(doctor, day.atTime(8, 45), day.atTime(9, 15))));
+
+        // When
+        VisitScheduleDTO result = visitService.createVisitSchedule(command);
+
+        // Then
+        assertEquals(2, result.createdCount());
+        assertEquals(2, result.skippedCount());
+        assertEquals(day.atTime(8, 30), result.skippedSlots().get(0).startTime());
+        assertEquals(day.atTime(9, 0), result.skippedSlots().get(1).startTime());
+        ArgumentCaptor<List<Visit>> savedVisits = ArgumentCaptor.forClass(List.class);
+        verify(visitRepository).saveAll(savedVisits.capture());
+        assertEquals(2, savedVisits.getValue().size());
+    }
+
+    @Test
+    void createVisitSchedule_slotNotQuarterMultiple_throwsException() {
+        // Given
+        LocalDate day = LocalDate.now().plusDays(1);
+        CreateVisitScheduleCommand command = CreateVisitScheduleCommand.builder()
+                .doctorId(1L)
+                .fromDate(day)
+                .toDate(day.plusDays(7))
+                .daysOfWeek(EnumSet.allOf(DayOfWeek.class))
+                .workStart(LocalTime.of(8, 0))
+                .workEnd(LocalTime.of(16, 0))
+                .slotMinutes(20)
+                .build();
+
+        // When
+        VisitException exception = assertThrows(VisitException.class, () -> visitService.createVisitSchedule(command));
+
+        // Then
+        assertEquals("Slot length must be a multiple of 15 minutes", exception.getMessage());
+    }
+
     @Test
     void bookVisit_visitExist_VisitBooked() {
         // Given
         Long visitId = 1L;
         Long patientId = 1L;
-        Visit visit = createVisit(visitId);
         Patient patient = createPatient(patientId);
-        when(visitRepository.findById(visitId)).thenReturn(Optional.of(visit));
         when(patientRepository.findById(patientId)).thenReturn(Optional.of(patient));
+        when(visitRepository.assignPatientIfAvailable(visitId, patient)).thenReturn(1);
 
-        Visit savedVisit = createVisit(visitId);
-        savedVisit.setPatient(patient);
-        when(visitRepository.save(any())).thenReturn(savedVisit);
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(9, 0);
+        Visit bookedVisit = createVisit(createDoctor(1L), startTime, startTime.plusMinutes(15));
+        bookedVisit.setId(visitId);
+        bookedVisit.setPatient(patient);
+        when(visitRepository.findById(visitId)).thenReturn(Optional.of(bookedVisit));
 
         // When
         VisitDTO result = visitService.bookVisit(visitId, patientId);
 
         // Then
         assertEquals(visitId, result.getId());
-        assertEquals(visit.getStartTime(), result.getStartTime());
-        assertEquals(visit.getEndTime(), result.getEndTime());
+        assertEquals(bookedVisit.getStartTime(), result.getStartTime());
+        assertEquals(bookedVisit.getEndTime(), result.getEndTime());
+        assertFalse(result.isAvailable());
+    }
+
+    @Test
+    void findAvailableVisits_freeVisitIndexed_onlyIndexedDoctorsQueried() {
+        // Given
+        LocalDate day = LocalDate.now().plusDays(1);
+        Doctor freeDoctor = createDoctor(1L);
+        Doctor busyDoctor = createDoctor(2L);
+        Facility facility = Facility.builder()
+                .id(1L)
+                .facilityName("Clinic")
+                .doctors(new HashSet<>(List.of(freeDoctor, busyDoctor)))
+                .build();
+        Visit freeVisit = createVisit(freeDoctor, day.atTime(10, 0), day.atTime(10, 15));
+        availabilityIndex.markFree(freeDoctor.getId(), freeVisit.getStartTime());
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        when(facilityRepository.findByFacilityName("Clinic")).thenReturn(Optional.of(facility));
+        when(visitRepository.findFreeVisits(Set.of(1L), from, to)).thenReturn(List.of(freeVisit));
+
+        // When
+        List<VisitDTO> result = visitService.findAvailableVisits("Clinic", day, day);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(freeVisit.getStartTime(), result.get(0).getStartTime());
+    }
+
+    @Test
+    void findAvailableVisits_noIndexedDoctor_databaseNotQueried() {
+        // Given
+        LocalDate day = LocalDate.now().plusDays(1);
+        Facility facility = Facility.builder()
+                .id(1L)
+                .facilityName("Clinic")
+                .doctors(new HashSet<>(List.of(createDoctor(1L))))
+                .build();
+        when(facilityRepository.findByFacilityName("Clinic")).thenReturn(Optional.of(facility));
+
+        // When
+        List<VisitDTO> result = visitService.findAvailableVisits("Clinic", day, day.plusDays(6));
+
+        // Then
+        assertEquals(0, result.size());
+        verify(visitRepository, never()).findFreeVisits(any(), any(), any());
+    }
+
+    @Test
+    void bookVisit_booked_removedFromAvailabilityIndex() {
+        // Given
+        Patient patient = createPatient(1L);
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(9, 0);
+        Visit visit = createVisit(createDoctor(1L), startTime, startTime.plusMinutes(15));
+        visit.setId(1L);
+        availabilityIndex.markFree(1L, startTime);
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        when(visitRepository.assignPatientIfAvailable(1L, patient)).thenReturn(1);
+        when(visitRepository.findById(1L)).thenReturn(Optional.of(visit));
+
+        // When
+        visitService.bookVisit(1L, 1L);
+
+        // Then
+        assertTrue(availabilityIndex.doctorsWithFreeSlots(List.of(1L), startTime, startTime.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void bookVisits_mixedBatch_eachRequestResolved() {
+        // Given
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(9, 0);
+        Visit free = createVisit(createDoctor(1L), startTime, startTime.plusMinutes(15));
+        free.setId(1L);
+        free.setPatient(createPatient(10L));
+        Visit taken = createVisit(createDoctor(1L), startTime.plusMinutes(15), startTime.plusMinutes(30));
+        taken.setId(2L);
+        taken.setPatient(createPatient(12L));
+        availabilityIndex.markFree(1L, startTime);
+        List<BookingRequest> requests = List.of(
+                new BookingRequest(1L, 10L),
+                new BookingRequest(1L, 11L),
+                new BookingRequest(2L, 10L),
+                new BookingRequest(3L, 10L),
+                new BookingRequest(1L, 99L));
+        when(patientRepository.findIdsByIdIn(Set.of(10L, 11L, 99L))).thenReturn(Set.of(10L, 11L));
+        when(visitRepository.assignPatients(List.of(requests.get(0), requests.get(2), requests.get(3)))).thenReturn(new int[]{1, 0, 0});
+        when(visitRepository.findByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(free, taken));
+
+        // When
+        List<CompletableFuture<VisitDTO>> results = visitService.bookVisits(requests);
+
+        // Then
+        assertEquals(1L, results.get(0).join().getId());
+        assertFalse(results.get(0).join().isAvailable());
+        assertFailedWith(VisitAlreadyBookedException.class, results.get(1));
+        assertFailedWith(VisitAlreadyBookedException.class, results.get(2));
+        assertFailedWith(VisitException.class, results.get(3));
+        assertFailedWith(PatientException.class, results.get(4));
+        assertTrue(availabilityIndex.doctorsWithFreeSlots(List.of(1L), startTime, startTime.plusDays(1)).isEmpty());
+        assertEquals(1.0, meterRegistry.counter("clinic.visits.bookings", "outcome", "booked").count());
+        assertEquals(2.0, meterRegistry.counter("clinic.visits.bookings", "outcome", "conflict").count());
+    }
+
+    @Test
+    void getDoctorSchedule_visitsFound_doctorLookupSkipped() {
+        // Given
+        LocalDate date = LocalDate.now().plusDays(1);
+        ScheduledVisitDTO visit = new ScheduledVisitDTO(1L, date.atTime(9, 0), date.atTime(9, 15), 2L, "John", "Doe");
+        when(visitRepository.findDoctorSchedule(1L, date.atStartOfDay(), date.plusDays(1).atStartOfDay())).thenReturn(List.of(visit));
+
+        // When
+        DoctorScheduleDTO result = visitService.getDoctorSchedule(1L, date);
+
+        // Then
+        assertEquals(List.of(visit), result.visits());
+        assertEquals("John Doe", result.visits().get(0).patientName());
+        verify(doctorRepository, never()).existsById(any());
+    }
+
+    @Test
+    void getDoctorSchedule_doctorNotFound_throwsException() {
+        // Given
+        LocalDate date = LocalDate.now().plusDays(1);
+        when(visitRepository.findDoctorSchedule(1L, date.atStartOfDay(), date.plusDays(1).atStartOfDay())).thenReturn(List.of());
+        when(doctorRepository.existsById(1L)).thenReturn(false);
+
+        // When
+        DoctorException exception = assertThrows(DoctorException.class, () -> visitService.getDoctorSchedule(1L, date));
+
+        // Then
+        assertEquals("Doctor doesnt exist", exception.getMessage());
     }
 
     @Test
@@ -179,7 +404,10 @@ public class VisitServiceTest {
         // Given
         Long visitId = 1L;
         Long patientId = 2L;
-        when(visitRepository.findById(visitId)).thenReturn(Optional.empty());
+        Patient patient = createPatient(patientId);
+        when(patientRepository.findById(patientId)).thenReturn(Optional.of(patient));
+        when(visitRepository.assignPatientIfAvailable(visitId, patient)).thenReturn(0);
+        when(visitRepository.existsById(visitId)).thenReturn(false);
 
         // When
         VisitException exception = assertThrows(VisitException.class, () -> visitService.bookVisit(visitId, patientId));
@@ -188,18 +416,34 @@ public class VisitServiceTest {
         assertEquals("Visit doesnt exist", exception.getMessage());
     }
 
+    @Test
+    void bookVisit_visitAlreadyBooked_throwsException() {
+        // Given
+        Long visitId = 1L;
+        Long patientId = 2L;
+        Patient patient = createPatient(patientId);
+        when(patientRepository.findById(patientId)).thenReturn(Optional.of(patient));
+        when(visitRepository.assignPatientIfAvailable(visitId, patient)).thenReturn(0);
+        when(visitRepository.existsById(visitId)).thenReturn(true);
+
+        // When
+        VisitAlreadyBookedException exception = assertThrows(VisitAlreadyBookedException.class,
+                () -> visitService.bookVisit(visitId, patientId));
+
+        // Then
+        assertEquals("Visit is already booked", exception.getMessage());
+        assertEquals(1.0, meterRegistry.counter("clinic.visits.bookings", "outcome", "conflict").count());
+    }
+
     @Test
     void bookVisit_patientNotFound_throwsException() {
         // Given
         Long visitId = 1L;
         Long patientId = 1L;
-        Visit visit = createVisit(visitId);
-
-        when(visitRepository.findById(visitId)).thenReturn(Optional.of(visit));
         when(patientRepository.findById(patientId)).thenReturn(Optional.empty());
 
         // When
-        VisitException exception = assertThrows(VisitException.class, () -> visitService.bookVisit(visitId, patientId));
+        PatientException exception = assertThrows(PatientException.class, () -> visitService.bookVisit(visitId, patientId));
 
         // Then
         assertEquals("Patient doesnt exist", exception.getMessage());
@@ -214,17 +458,59 @@ public class VisitServiceTest {
                 createVisit(2L)
         );
         Page<Visit> page = new PageImpl(visitList, pageable, 2L);
-        when(visitRepository.findAll(pageable)).thenReturn(page);
+        when(visitRepository.findAll(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(page);
 
         // When
-        PageableContentDTO<VisitDTO> result = visitService.getVisits(pageable);
+        Versioned<PageableContentDTO<VisitDTO>> versioned = visitService.getVisits(pageable);
 
         //Then
+        PageableContentDTO<VisitDTO> result = versioned.content();
         assertEquals(page.getTotalPages(), result.totalPages());
         assertEquals(page.getTotalElements(), result.totalElements());
         assertEquals(page.getContent().size(), result.content().size());
         assertEquals(1L, result.content().get(0).getId());
         assertEquals(2L, result.content().get(1).getId());
+        assertEquals(ResourceVersion.of(new PageImpl<>(List.of(new VersionStamp(1L, 0), new VersionStamp(2L, 0)), pageable, 2L)),
+                versioned.version());
+    }
+
+    @Test
+    void getVisits_rowVersionChanged_eTagChanged() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        Visit visit = createVisit(1L);
+        when(visitRepository.findAll(PageRequest.of(0, 10, Sort.by("id"))))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(visit), pageable, 1L));
+        String before = visitService.getVisits(pageable).version().eTag();
+
+        // When
+        visit.setVersion(1L);
+        String after = visitService.getVisits(pageable).version().eTag();
+
+        // Then
+        assertNotEquals(before, after);
+        verify(visitRepository, times(2)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void upcomingVisitGauges_scrapedRepeatedly_countedOncePerTtl() {
+        // Given
+        when(visitRepository.countUpcoming(any())).thenReturn(new UpcomingVisitCounts(3L, 2L));
+
+        // When
+        double free = meterRegistry.get("clinic.visits.upcoming").tag("state", "free").gauge().value();
+        double booked = meterRegistry.get("clinic.visits.upcoming").tag("state", "booked").gauge().value();
+        meterRegistry.get("clinic.visits.upcoming").tag("state", "free").gauge().value();
+
+        // Then
+        assertEquals(3.0, free);
+        assertEquals(2.0, booked);
+        verify(visitRepository, times(1)).countUpcoming(any());
+    }
+
+    private void assertFailedWith(Class<? extends Throwable> expected, CompletableFuture<VisitDTO> result) {
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertEquals(expected, exception.getCause().getClass());
     }
 
     private Visit createVisit(Long visitId) {